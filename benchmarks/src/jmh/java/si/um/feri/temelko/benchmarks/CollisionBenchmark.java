@@ -0,0 +1,85 @@
+package si.um.feri.temelko.benchmarks;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import si.um.feri.temelko.EntityPool;
+import si.um.feri.temelko.RoadSimulation;
+import si.um.feri.temelko.SpatialHash;
+import si.um.feri.temelko.SpriteSizes;
+
+/**
+ * Bullet/obstacle overlap detection: spatial-hash broadphase (rebuild plus one query per bullet)
+ * against the brute-force nested loop it replaced. Entities are not removed, so every invocation
+ * does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int obstacleCount;
+
+    @Param({"10", "100"})
+    public int bulletCount;
+
+    private final EntityPool obstacles = new EntityPool();
+    private final EntityPool bullets = new EntityPool();
+    private final SpatialHash hash = new SpatialHash();
+    private final IntArray candidates = new IntArray();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        obstacles.clear();
+        bullets.clear();
+        for (int i = 0; i < obstacleCount; i++) {
+            obstacles.add(random.nextFloat() * (RoadSimulation.WORLD_WIDTH - SpriteSizes.OBSTACLE_WIDTH),
+                random.nextFloat() * RoadSimulation.WORLD_HEIGHT, SpriteSizes.OBSTACLE_WIDTH, SpriteSizes.OBSTACLE_HEIGHT);
+        }
+        for (int i = 0; i < bulletCount; i++) {
+            bullets.add(random.nextFloat() * RoadSimulation.WORLD_WIDTH, random.nextFloat() * RoadSimulation.WORLD_HEIGHT,
+                SpriteSizes.BULLET_WIDTH, SpriteSizes.BULLET_HEIGHT);
+        }
+        hash.setCellSize(SpriteSizes.OBSTACLE_WIDTH);
+    }
+
+    @Benchmark
+    public int spatialHash() {
+        int hits = 0;
+        hash.build(obstacles, RoadSimulation.WORLD_WIDTH, RoadSimulation.WORLD_HEIGHT);
+        for (int i = 0; i < bullets.size(); i++) {
+            hash.query(bullets.getX(i), bullets.getY(i), bullets.getWidth(i), bullets.getHeight(i), candidates);
+            for (int c = 0; c < candidates.size; c++) {
+                if (bullets.overlaps(i, obstacles, candidates.get(c))) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        int hits = 0;
+        for (int i = 0; i < bullets.size(); i++) {
+            for (int j = 0; j < obstacles.size(); j++) {
+                if (bullets.overlaps(i, obstacles, j)) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+}
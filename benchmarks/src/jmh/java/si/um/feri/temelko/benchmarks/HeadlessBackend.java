@@ -0,0 +1,38 @@
+package si.um.feri.temelko.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/** Starts a single headless libGDX application so benchmarks can use Gdx.app, Gdx.files and a mock GL. */
+public final class HeadlessBackend {
+    private HeadlessBackend() {
+    }
+
+    public static synchronized void start() {
+        if (Gdx.app != null) return;
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // Never touch the player's real preferences (leaderboard, settings)
+        configuration.preferencesDirectory = createPreferencesDirectory();
+        configuration.preferencesFileType = FileType.Absolute;
+        // The application listener is never rendered; benchmarks drive the code directly
+        configuration.updatesPerSecond = -1;
+        new HeadlessApplication(new ApplicationAdapter() {
+        }, configuration);
+    }
+
+    private static String createPreferencesDirectory() {
+        try {
+            File directory = Files.createTempDirectory("road-game-benchmark-prefs").toFile();
+            directory.deleteOnExit();
+            return directory.getAbsolutePath() + File.separator;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create a preferences directory for benchmarks", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package si.um.feri.temelko.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import si.um.feri.temelko.HudText;
+
+/**
+ * Per-frame HUD text cost: {@link HudText} against string concatenation with {@code String.format}
+ * and a fresh layout, for a value that changes every frame and one that does not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HudFormatBenchmark {
+    private BitmapFont font;
+    private HudText scoreText;
+    private HudText speedText;
+    private final GlyphLayout layout = new GlyphLayout();
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        HeadlessBackend.start();
+        font = new BitmapFont();
+        scoreText = new HudText(font, "Score: ");
+        speedText = new HudText(font, "Speed x");
+    }
+
+    @TearDown
+    public void tearDown() {
+        font.dispose();
+    }
+
+    @Benchmark
+    public GlyphLayout formatChanging() {
+        frame++;
+        layout.setText(font, "Score: " + frame);
+        layout.setText(font, "Speed x" + String.format("%.2f", 1f + frame * 0.01f));
+        return layout;
+    }
+
+    @Benchmark
+    public HudText hudTextChanging() {
+        frame++;
+        scoreText.setValue(frame);
+        speedText.setValue(1f + frame * 0.01f);
+        return speedText;
+    }
+
+    @Benchmark
+    public GlyphLayout formatUnchanged() {
+        layout.setText(font, "Score: " + 120);
+        layout.setText(font, "Speed x" + String.format("%.2f", 1.3f));
+        return layout;
+    }
+
+    @Benchmark
+    public HudText hudTextUnchanged() {
+        scoreText.setValue(120);
+        speedText.setValue(1.3f);
+        return speedText;
+    }
+}
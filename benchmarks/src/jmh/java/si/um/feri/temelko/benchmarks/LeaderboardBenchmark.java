@@ -0,0 +1,70 @@
+package si.um.feri.temelko.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import si.um.feri.temelko.GameSettings;
+import si.um.feri.temelko.MetricsRegistry;
+import si.um.feri.temelko.PersistenceWriter;
+import si.um.feri.temelko.ScoreBoard;
+import si.um.feri.temelko.ScoreStore;
+
+/**
+ * Leaderboard reads and run inserts on a {@link ScoreStore} with full boards. The score log and index
+ * are kept in a temporary directory, deleted after each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardBenchmark {
+    private static final int BOARD_SIZE = 10;
+
+    private File directory;
+    private PersistenceWriter writer;
+    private ScoreStore scores;
+    private int nextScore;
+
+    @Setup
+    public void setUp() throws IOException {
+        HeadlessBackend.start();
+        directory = Files.createTempDirectory("road-game-benchmark-scores").toFile();
+        writer = new PersistenceWriter(new MetricsRegistry());
+        scores = new ScoreStore(new File(directory, "scores.log"), new File(directory, "scores.idx"), writer, BOARD_SIZE);
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            scores.addRun("Player" + i, 1000 + i * 10, GameSettings.Difficulty.NORMAL, System.currentTimeMillis());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scores.close();
+        writer.close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public Array<ScoreBoard.Entry> getLeaderboard() {
+        return scores.getBoard(null, ScoreBoard.Window.ALL_TIME);
+    }
+
+    @Benchmark
+    public void addScore() {
+        // Alternates between improving an existing entry and a score too low to change the board
+        scores.addRun("Player" + (nextScore % BOARD_SIZE), nextScore++ % 2000, GameSettings.Difficulty.NORMAL,
+            System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,65 @@
+package si.um.feri.temelko.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import si.um.feri.temelko.EntityPool;
+import si.um.feri.temelko.GameSettings;
+import si.um.feri.temelko.RoadSimulation;
+import si.um.feri.temelko.SpriteSizes;
+
+/**
+ * Cost of one {@link RoadSimulation#step(float)} with a steady number of live obstacles and bullets.
+ * Entities that leave the world are topped up before each tick, which models a much higher spawn rate
+ * than the Difficulty presets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimulationBenchmark {
+    private static final float DELTA = 1f / 60f;
+
+    @Param({"10", "100", "1000"})
+    public int entityCount;
+
+    private final RoadSimulation simulation = new RoadSimulation();
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() {
+        simulation.reset(GameSettings.Difficulty.NORMAL);
+        simulation.getInput().shoot = true;
+        topUp();
+    }
+
+    @Benchmark
+    public int step() {
+        if (simulation.isGameOver()) {
+            simulation.reset(GameSettings.Difficulty.NORMAL);
+            simulation.getInput().shoot = true;
+        }
+        topUp();
+        simulation.step(DELTA);
+        return simulation.getScore();
+    }
+
+    private void topUp() {
+        EntityPool obstacles = simulation.getObstacles();
+        while (obstacles.size() < entityCount) {
+            obstacles.add(random.nextFloat() * (RoadSimulation.WORLD_WIDTH - SpriteSizes.OBSTACLE_WIDTH),
+                random.nextFloat() * RoadSimulation.WORLD_HEIGHT, SpriteSizes.OBSTACLE_WIDTH, SpriteSizes.OBSTACLE_HEIGHT);
+        }
+        EntityPool bullets = simulation.getBullets();
+        while (bullets.size() < entityCount / 4) {
+            bullets.add(random.nextFloat() * RoadSimulation.WORLD_WIDTH, random.nextFloat() * RoadSimulation.WORLD_HEIGHT,
+                SpriteSizes.BULLET_WIDTH, SpriteSizes.BULLET_HEIGHT);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Plays sound effects within a fixed budget of voices.
+ * <ul>
+ * <li>{@link #play(Effect)} only queues a request; the same effect requested several times in one
+ * frame plays once, when {@link #update()} runs at the end of the frame.</li>
+ * <li>Each effect has its own voice cap: past it, the effect's oldest voice is cut for the new one.</li>
+ * <li>When the whole budget is in use, the oldest voice of the lowest priority is stolen, unless every
+ * playing voice outranks the request, which is then dropped.</li>
+ * <li>The sound volume comes from the {@link GameSettings} snapshot and is applied here only, also to
+ * voices that are already playing when it changes.</li>
+ * </ul>
+ * {@link Sound} does not report when a voice ends, so each effect is registered with its length.
+ */
+public class AudioManager implements GameSettings.Listener {
+    // OpenAL offers 16 sources on desktop; the rest stay free for music
+    private static final int MAX_VOICES = 12;
+
+    /**
+     * A registered sound effect.
+     */
+    public static final class Effect {
+        private final Sound sound;
+        private final int maxVoices;
+        private final int priority;
+        private final float gain;
+        private final long durationNanos;
+        private int activeVoices;
+        private boolean requested;
+
+        private Effect(Sound sound, int maxVoices, int priority, float gain, float durationSeconds) {
+            this.sound = sound;
+            this.maxVoices = maxVoices;
+            this.priority = priority;
+            this.gain = gain;
+            this.durationNanos = (long) (durationSeconds * 1_000_000_000L);
+        }
+    }
+
+    // Playing voices, oldest first, as parallel arrays
+    private final Effect[] voiceEffects = new Effect[MAX_VOICES];
+    private final long[] voiceIds = new long[MAX_VOICES];
+    private final long[] voiceEnds = new long[MAX_VOICES];
+    private int voiceCount;
+    // Effects requested this frame, highest priority first
+    private final Array<Effect> queue = new Array<>(false, 8);
+    private float volume;
+
+    private final MetricsRegistry.Gauge voicesGauge;
+    private final MetricsRegistry.Counter played;
+    private final MetricsRegistry.Counter merged;
+    private final MetricsRegistry.Counter stolen;
+    private final MetricsRegistry.Counter dropped;
+
+    public AudioManager(GameSettings settings, MetricsRegistry metrics) {
+        volume = settings.getSnapshot().soundVolume;
+        settings.addListener(this);
+        voicesGauge = metrics.gauge("audio.voices");
+        played = metrics.counter("audio.played");
+        merged = metrics.counter("audio.merged");
+        stolen = metrics.counter("audio.stolen");
+        dropped = metrics.counter("audio.dropped");
+    }
+
+    /**
+     * Registers an effect. {@code gain} is multiplied with the sound volume setting, and a higher
+     * {@code priority} may steal voices from a lower one.
+     */
+    public Effect register(Sound sound, int maxVoices, int priority, float gain, float durationSeconds) {
+        return new Effect(sound, maxVoices, priority, gain, durationSeconds);
+    }
+
+    /**
+     * Requests the effect to be played at the end of this frame.
+     */
+    public void play(Effect effect) {
+        if (effect.requested) {
+            merged.increment();
+            return;
+        }
+        effect.requested = true;
+        int index = 0;
+        while (index < queue.size && queue.get(index).priority >= effect.priority) index++;
+        queue.insert(index, effect);
+    }
+
+    /**
+     * Starts the requested effects. Called once per frame, after the screen has rendered.
+     */
+    public void update() {
+        long now = System.nanoTime();
+        expireVoices(now);
+        for (int i = 0; i < queue.size; i++) {
+            Effect effect = queue.get(i);
+            effect.requested = false;
+            start(effect, now);
+        }
+        queue.clear();
+        voicesGauge.set(voiceCount);
+    }
+
+    private void start(Effect effect, long now) {
+        if (effect.activeVoices >= effect.maxVoices) {
+            stopVoice(findOldest(effect));
+        } else if (voiceCount == MAX_VOICES) {
+            int victim = findLowestPriority();
+            if (voiceEffects[victim].priority > effect.priority) {
+                dropped.increment();
+                return;
+            }
+            stopVoice(victim);
+            stolen.increment();
+        }
+
+        long id = effect.sound.play(volume * effect.gain);
+        if (id == -1) {
+            // No free source, e.g. taken by music or another application
+            dropped.increment();
+            return;
+        }
+        voiceEffects[voiceCount] = effect;
+        voiceIds[voiceCount] = id;
+        voiceEnds[voiceCount] = now + effect.durationNanos;
+        voiceCount++;
+        effect.activeVoices++;
+        played.increment();
+    }
+
+    private void expireVoices(long now) {
+        int kept = 0;
+        for (int i = 0; i < voiceCount; i++) {
+            if (voiceEnds[i] <= now) {
+                voiceEffects[i].activeVoices--;
+                continue;
+            }
+            voiceEffects[kept] = voiceEffects[i];
+            voiceIds[kept] = voiceIds[i];
+            voiceEnds[kept] = voiceEnds[i];
+            kept++;
+        }
+        for (int i = kept; i < voiceCount; i++) voiceEffects[i] = null;
+        voiceCount = kept;
+    }
+
+    private int findOldest(Effect effect) {
+        for (int i = 0; i < voiceCount; i++) {
+            if (voiceEffects[i] == effect) return i;
+        }
+        throw new IllegalStateException("Effect has no active voice");
+    }
+
+    private int findLowestPriority() {
+        int lowest = 0;
+        for (int i = 1; i < voiceCount; i++) {
+            if (voiceEffects[i].priority < voiceEffects[lowest].priority) lowest = i;
+        }
+        return lowest;
+    }
+
+    private void stopVoice(int index) {
+        Effect effect = voiceEffects[index];
+        effect.sound.stop(voiceIds[index]);
+        effect.activeVoices--;
+        System.arraycopy(voiceEffects, index + 1, voiceEffects, index, voiceCount - index - 1);
+        System.arraycopy(voiceIds, index + 1, voiceIds, index, voiceCount - index - 1);
+        System.arraycopy(voiceEnds, index + 1, voiceEnds, index, voiceCount - index - 1);
+        voiceCount--;
+        voiceEffects[voiceCount] = null;
+    }
+
+    @Override
+    public void settingsChanged(GameSettings.Snapshot previous, GameSettings.Snapshot current) {
+        if (current.soundVolume == volume) return;
+        volume = current.soundVolume;
+        for (int i = 0; i < voiceCount; i++) {
+            voiceEffects[i].sound.setVolume(voiceIds[i], volume * voiceEffects[i].gain);
+        }
+    }
+}
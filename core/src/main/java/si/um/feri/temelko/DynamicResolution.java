@@ -0,0 +1,202 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+
+/**
+ * Off-screen target for drawing the world at a fixed virtual size, with a pixel count that follows the
+ * measured frame time.
+ * <p>
+ * The world is drawn in virtual units into a {@link FrameBuffer}, which is then stretched over the part
+ * of the screen the virtual area fits into (letterboxed). At full quality the buffer has as many pixels
+ * as that part of the screen. When the average frame time over the last {@link #SAMPLE_FRAMES} frames
+ * misses the frame budget, the buffer shrinks by one step; once frames have stayed within budget for a
+ * while, it grows by one step again. With vsync a frame never takes less than the refresh interval, so
+ * growing is a probe: when the larger buffer misses the budget again, the next probe waits twice as long.
+ */
+public class DynamicResolution implements Disposable {
+    // Quality is 1 - level * QUALITY_STEP, i.e. the buffer's pixel count relative to the screen area's
+    private static final float QUALITY_STEP = 0.1f;
+    private static final int MAX_LEVEL = 5;
+    private static final int SAMPLE_FRAMES = 30;
+    // An average more than this fraction over the budget counts as missing it
+    private static final float BUDGET_TOLERANCE = 0.15f;
+    // Longest frame time sampled, so a single stall (loading, switching screens) does not lower quality
+    private static final float MAX_SAMPLE = 0.1f;
+    // Seconds within budget before the next larger size is tried, doubled each time a try fails
+    private static final float RAISE_DELAY = 3f;
+    private static final float MAX_RAISE_DELAY = 60f;
+
+    private final float virtualWidth;
+    private final float virtualHeight;
+    // Maps virtual units onto the whole buffer, and the buffer onto the screen
+    private final OrthographicCamera worldCamera = new OrthographicCamera();
+    private final FitViewport screenViewport;
+
+    private final float[] samples = new float[SAMPLE_FRAMES];
+    private int sampleCount;
+    private int sampleIndex;
+    private float sampleSum;
+    private float frameBudget = 1f / 60f;
+    private int level;
+    private float timeWithinBudget;
+    private float raiseDelay = RAISE_DELAY;
+    // Set after growing, until the first average at the new size
+    private boolean probing;
+
+    // Buffer size at full quality, in back buffer pixels
+    private int fullWidth;
+    private int fullHeight;
+    private FrameBuffer frameBuffer;
+
+    private final MetricsRegistry.Gauge qualityGauge;
+    private final MetricsRegistry.Counter changes;
+
+    public DynamicResolution(float virtualWidth, float virtualHeight, MetricsRegistry metrics) {
+        this.virtualWidth = virtualWidth;
+        this.virtualHeight = virtualHeight;
+        worldCamera.setToOrtho(false, virtualWidth, virtualHeight);
+        worldCamera.update();
+        screenViewport = new FitViewport(virtualWidth, virtualHeight);
+        qualityGauge = metrics.gauge("render.quality");
+        changes = metrics.counter("render.quality.changes");
+        qualityGauge.set(getQuality());
+    }
+
+    /**
+     * Fits the virtual area into a screen of {@code width} by {@code height} logical pixels.
+     */
+    public void resize(int width, int height) {
+        screenViewport.update(width, height, true);
+        float density = (float) com.badlogic.gdx.Gdx.graphics.getBackBufferWidth() / Math.max(1, width);
+        fullWidth = Math.max(1, Math.round(screenViewport.getScreenWidth() * density));
+        fullHeight = Math.max(1, Math.round(screenViewport.getScreenHeight() * density));
+        resetSamples();
+    }
+
+    /**
+     * Width of the letterboxed screen area in back buffer pixels, i.e. of the buffer at full quality.
+     */
+    public int getScreenWidth() {
+        return fullWidth;
+    }
+
+    /**
+     * Height of the letterboxed screen area in back buffer pixels.
+     */
+    public int getScreenHeight() {
+        return fullHeight;
+    }
+
+    /**
+     * Sets the time one frame may take, normally the display's refresh interval.
+     */
+    public void setFrameBudget(float seconds) {
+        frameBudget = seconds;
+        resetSamples();
+    }
+
+    /**
+     * Pixel count of the buffer relative to the screen area it is shown in, between 0.5 and 1. Each axis
+     * is scaled by the square root of this.
+     */
+    public float getQuality() {
+        return 1f - level * QUALITY_STEP;
+    }
+
+    /**
+     * Records the duration of the last frame and adjusts the quality for the next ones.
+     */
+    public void update(float delta) {
+        float sample = Math.min(delta, MAX_SAMPLE);
+        sampleSum += sample - samples[sampleIndex];
+        samples[sampleIndex] = sample;
+        sampleIndex = (sampleIndex + 1) % SAMPLE_FRAMES;
+        if (sampleCount < SAMPLE_FRAMES) {
+            sampleCount++;
+            return;
+        }
+
+        boolean withinBudget = sampleSum / SAMPLE_FRAMES <= frameBudget * (1f + BUDGET_TOLERANCE);
+        if (!withinBudget) {
+            if (probing) raiseDelay = Math.min(raiseDelay * 2f, MAX_RAISE_DELAY);
+            probing = false;
+            timeWithinBudget = 0f;
+            if (level < MAX_LEVEL) setLevel(level + 1);
+            return;
+        }
+        if (probing) {
+            // The larger size held up, so the next one may be tried as early as usual
+            probing = false;
+            raiseDelay = RAISE_DELAY;
+        }
+        timeWithinBudget += delta;
+        if (level > 0 && timeWithinBudget >= raiseDelay) {
+            timeWithinBudget = 0f;
+            probing = true;
+            setLevel(level - 1);
+        }
+    }
+
+    private void setLevel(int level) {
+        this.level = level;
+        qualityGauge.set(getQuality());
+        changes.increment();
+        // The average is rebuilt from frames at the new size
+        resetSamples();
+    }
+
+    private void resetSamples() {
+        for (int i = 0; i < SAMPLE_FRAMES; i++) samples[i] = 0f;
+        sampleCount = 0;
+        sampleIndex = 0;
+        sampleSum = 0f;
+    }
+
+    /**
+     * Starts drawing the world: binds the buffer, resized to the current quality when needed, and sets
+     * the batch to virtual units. The batch must not be drawing.
+     */
+    public void begin(SpriteBatch batch) {
+        float axisScale = (float) Math.sqrt(getQuality());
+        int width = Math.max(1, Math.round(fullWidth * axisScale));
+        int height = Math.max(1, Math.round(fullHeight * axisScale));
+        if (frameBuffer == null || frameBuffer.getWidth() != width || frameBuffer.getHeight() != height) {
+            if (frameBuffer != null) frameBuffer.dispose();
+            frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+            frameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        frameBuffer.begin();
+        batch.setProjectionMatrix(worldCamera.combined);
+    }
+
+    /**
+     * Finishes drawing the world and switches the batch to the letterboxed screen area, still in
+     * virtual units.
+     */
+    public void end(SpriteBatch batch) {
+        frameBuffer.end();
+        screenViewport.apply();
+        batch.setProjectionMatrix(screenViewport.getCamera().combined);
+    }
+
+    /**
+     * Draws the world, scaled up to the screen area. Call between {@link SpriteBatch#begin()} and
+     * {@link SpriteBatch#end()} after {@link #end(SpriteBatch)}.
+     */
+    public void drawWorld(SpriteBatch batch) {
+        // The buffer's first row is its bottom, so the texture is drawn with v from 0 at the bottom
+        batch.draw(frameBuffer.getColorBufferTexture(), 0f, 0f, virtualWidth, virtualHeight, 0f, 0f, 1f, 1f);
+    }
+
+    @Override
+    public void dispose() {
+        if (frameBuffer != null) frameBuffer.dispose();
+        frameBuffer = null;
+    }
+}
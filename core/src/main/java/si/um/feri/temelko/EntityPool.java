@@ -0,0 +1,145 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Allocation-free storage for axis-aligned gameplay entities (obstacles, fuels, power-ups, bullets).
+ * Bounds are kept as struct-of-arrays in primitive float arrays. Entities are {@link #kill(int) killed}
+ * while iterating and removed afterwards by {@link #compact()}, which swaps the last live entity into
+ * each freed slot. The arrays only grow when a run exceeds the largest entity count seen so far,
+ * so steady-state play and {@link #clear() restarts} allocate nothing.
+ */
+public class EntityPool {
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private float[] x, y, width, height;
+    private boolean[] alive;
+    private int size;
+    private int deadCount;
+
+    public EntityPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EntityPool(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        alive = new boolean[capacity];
+    }
+
+    /**
+     * Adds a new live entity and returns its index, which stays valid until the next {@link #compact()}.
+     */
+    public int add(float x, float y, float width, float height) {
+        if (size == this.x.length) grow();
+        int index = size++;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.width[index] = width;
+        this.height[index] = height;
+        alive[index] = true;
+        return index;
+    }
+
+    /**
+     * Marks an entity for removal. Safe to call while iterating and more than once for the same index.
+     */
+    public void kill(int index) {
+        if (alive[index]) {
+            alive[index] = false;
+            deadCount++;
+        }
+    }
+
+    /**
+     * Removes all killed entities by moving the last live entity into each freed slot.
+     * Entity order is not preserved.
+     */
+    public void compact() {
+        if (deadCount == 0) return;
+        int i = 0;
+        while (i < size) {
+            if (alive[i]) {
+                i++;
+                continue;
+            }
+            int last = --size;
+            if (i != last) {
+                x[i] = x[last];
+                y[i] = y[last];
+                width[i] = width[last];
+                height[i] = height[last];
+                alive[i] = alive[last];
+            }
+            alive[last] = false;
+        }
+        deadCount = 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) alive[i] = false;
+        size = 0;
+        deadCount = 0;
+    }
+
+    public void translateY(int index, float amount) {
+        y[index] += amount;
+    }
+
+    public boolean overlaps(int index, Rectangle rectangle) {
+        return x[index] < rectangle.x + rectangle.width && x[index] + width[index] > rectangle.x
+            && y[index] < rectangle.y + rectangle.height && y[index] + height[index] > rectangle.y;
+    }
+
+    public boolean overlaps(int index, EntityPool other, int otherIndex) {
+        return x[index] < other.x[otherIndex] + other.width[otherIndex] && x[index] + width[index] > other.x[otherIndex]
+            && y[index] < other.y[otherIndex] + other.height[otherIndex] && y[index] + height[index] > other.y[otherIndex];
+    }
+
+    /**
+     * Number of entities including killed ones that have not been {@link #compact() compacted} yet.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isAlive(int index) {
+        return alive[index];
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getWidth(int index) {
+        return width[index];
+    }
+
+    public float getHeight(int index) {
+        return height[index];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = copyOf(x, capacity);
+        y = copyOf(y, capacity);
+        width = copyOf(width, capacity);
+        height = copyOf(height, capacity);
+        boolean[] newAlive = new boolean[capacity];
+        System.arraycopy(alive, 0, newAlive, 0, size);
+        alive = newAlive;
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
@@ -0,0 +1,186 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Bitmap fonts rendered from one TrueType font at exact pixel sizes, so text is drawn 1:1 and never scaled.
+ * <p>
+ * The first time a size is requested it is rasterized with FreeType and written to the cache
+ * directory as an AngelCode {@code .fnt} file plus PNG glyph pages. Every later request, in this run
+ * or the next, loads those files like any bitmap font, without touching FreeType. Cache file names
+ * include a checksum of the font file and the glyph set, so a changed font is rendered again.
+ * Fonts are owned by the service and disposed with it.
+ */
+public class FontService implements Disposable {
+    // Bump when the generated output changes, to ignore fonts cached by older versions
+    private static final int CACHE_VERSION = 1;
+    private static final int PAGE_SIZE = 1024;
+    private static final String CHARACTERS = FreeTypeFontGenerator.DEFAULT_CHARS;
+    // Size of the built-in font, used to scale it when a font cannot be generated
+    private static final int DEFAULT_FONT_SIZE = 15;
+
+    private final FileHandle fontFile;
+    private final FileHandle cacheDir;
+    private final String cacheKey;
+    private final IntMap<BitmapFont> fonts = new IntMap<>();
+    private final MetricsRegistry.Histogram loadTime;
+    private final MetricsRegistry.Counter generated;
+
+    public FontService(FileHandle fontFile, FileHandle cacheDir, MetricsRegistry metrics) {
+        this.fontFile = fontFile;
+        this.cacheDir = cacheDir;
+        cacheKey = cacheKey(fontFile);
+        loadTime = metrics.timer("fonts.load.time");
+        generated = metrics.counter("fonts.generated");
+    }
+
+    /**
+     * Key for the cache file names: a checksum of the font file's contents, the glyph set and the cache
+     * version. A font replaced by another of the same length gets a different key.
+     */
+    private static String cacheKey(FileHandle fontFile) {
+        CRC32 crc = new CRC32();
+        if (fontFile.exists()) crc.update(fontFile.readBytes());
+        crc.update(CHARACTERS.getBytes(StandardCharsets.UTF_8));
+        crc.update(CACHE_VERSION);
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * The font at {@code pixelSize}, loaded from the cache or generated into it on first use.
+     */
+    public BitmapFont get(int pixelSize) {
+        BitmapFont font = fonts.get(pixelSize);
+        if (font == null) {
+            long start = System.nanoTime();
+            font = load(pixelSize);
+            loadTime.recordSince(start);
+            fonts.put(pixelSize, font);
+        }
+        return font;
+    }
+
+    private BitmapFont load(int pixelSize) {
+        String name = fontFile.nameWithoutExtension() + "-" + pixelSize + "-" + cacheKey;
+        FileHandle fntFile = cacheDir.child(name + ".fnt");
+        try {
+            if (!fntFile.exists()) {
+                generate(pixelSize, name, fntFile);
+                generated.increment();
+            }
+            return new BitmapFont(fntFile);
+        } catch (GdxRuntimeException e) {
+            // Missing FreeType natives or an unwritable cache must not keep the game from starting
+            Gdx.app.error("FontService", "Could not create font " + name + ", using the default font", e);
+            fntFile.delete();
+            BitmapFont font = new BitmapFont();
+            font.getData().setScale((float) pixelSize / DEFAULT_FONT_SIZE);
+            return font;
+        }
+    }
+
+    private void generate(int pixelSize, String name, FileHandle fntFile) {
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(fontFile);
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 2, false);
+        try {
+            FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+            parameter.size = pixelSize;
+            parameter.characters = CHARACTERS;
+            parameter.packer = packer;
+            FreeTypeFontGenerator.FreeTypeBitmapFontData data = generator.generateData(parameter);
+
+            cacheDir.mkdirs();
+            Array<PixmapPacker.Page> pages = packer.getPages();
+            String[] pageFiles = new String[pages.size];
+            for (int i = 0; i < pages.size; i++) {
+                pageFiles[i] = name + "-" + i + ".png";
+                PixmapIO.writePNG(cacheDir.child(pageFiles[i]), pages.get(i).getPixmap());
+            }
+            // Written after its pages, so a cached .fnt always refers to complete pages
+            fntFile.writeString(toFnt(data, name, pageFiles, pixelSize), false);
+
+            // Glyph pages may also have been uploaded as textures for the generated data, which is not used
+            if (data.regions != null) {
+                for (TextureRegion region : data.regions) {
+                    Texture texture = region.getTexture();
+                    if (texture != null) texture.dispose();
+                }
+            }
+        } finally {
+            packer.dispose();
+            generator.dispose();
+        }
+    }
+
+    /**
+     * Text AngelCode BMFont description of the glyphs, in the layout {@link BitmapFont.BitmapFontData} reads.
+     * Y offsets are converted from the baseline-relative ones FreeType produces to top-relative ones.
+     */
+    private static String toFnt(BitmapFont.BitmapFontData data, String face, String[] pageFiles, int pixelSize) {
+        Array<BitmapFont.Glyph> glyphs = new Array<>(256);
+        for (BitmapFont.Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph != null) glyphs.add(glyph);
+            }
+        }
+
+        StringBuilder fnt = new StringBuilder(glyphs.size * 96);
+        fnt.append("info face=\"").append(face).append("\" size=").append(pixelSize)
+            .append(" bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=0,0,0,0 spacing=0,0\n");
+        int base = (int) (data.capHeight + (data.flipped ? -data.ascent : data.ascent));
+        fnt.append("common lineHeight=").append((int) data.lineHeight).append(" base=").append(base)
+            .append(" scaleW=").append(PAGE_SIZE).append(" scaleH=").append(PAGE_SIZE)
+            .append(" pages=").append(pageFiles.length).append(" packed=0\n");
+        for (int i = 0; i < pageFiles.length; i++) {
+            fnt.append("page id=").append(i).append(" file=\"").append(pageFiles[i]).append("\"\n");
+        }
+
+        fnt.append("chars count=").append(glyphs.size).append('\n');
+        for (BitmapFont.Glyph glyph : glyphs) {
+            int yoffset = data.flipped ? glyph.yoffset : -(glyph.height + glyph.yoffset);
+            fnt.append("char id=").append(glyph.id)
+                .append(" x=").append(glyph.srcX).append(" y=").append(glyph.srcY)
+                .append(" width=").append(glyph.width).append(" height=").append(glyph.height)
+                .append(" xoffset=").append(glyph.xoffset).append(" yoffset=").append(yoffset)
+                .append(" xadvance=").append(glyph.xadvance).append(" page=").append(glyph.page)
+                .append(" chnl=0\n");
+        }
+
+        StringBuilder kernings = new StringBuilder();
+        int kerningCount = 0;
+        for (BitmapFont.Glyph first : glyphs) {
+            for (BitmapFont.Glyph second : glyphs) {
+                int amount = first.getKerning((char) second.id);
+                if (amount == 0) continue;
+                kernings.append("kerning first=").append(first.id).append(" second=").append(second.id)
+                    .append(" amount=").append(amount).append('\n');
+                kerningCount++;
+            }
+        }
+        fnt.append("kernings count=").append(kerningCount).append('\n').append(kernings);
+        return fnt.toString();
+    }
+
+    @Override
+    public void dispose() {
+        for (BitmapFont font : fonts.values()) {
+            font.dispose();
+        }
+        fonts.clear();
+    }
+}
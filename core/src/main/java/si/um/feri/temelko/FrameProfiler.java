@@ -0,0 +1,160 @@
+package si.um.feri.temelko;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures each phase of a frame with {@link System#nanoTime()} and keeps a rolling window of frame
+ * times for the {@link ProfilerOverlay}. Spawn and collision are parts of the update phase and are
+ * timed inside {@link RoadSimulation#step(float)}. Percentiles are recomputed a few times per second
+ * from a sorted copy of the window, and GC events are detected by polling the collector beans once
+ * per frame. Nothing here allocates after construction.
+ */
+public class FrameProfiler {
+    public enum Phase {
+        INPUT("input"),
+        UPDATE("update"),
+        SPAWN("  spawn"),
+        COLLISION("  collide"),
+        WORLD_DRAW("world draw"),
+        HUD_DRAW("hud draw");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public static final int WINDOW = 240;
+    private static final int PERCENTILE_INTERVAL = 30; // frames between percentile updates
+    // Weight of the newest frame in the smoothed per-phase times, so the numbers stay readable
+    private static final float SMOOTHING = 0.1f;
+
+    private static final Phase[] PHASES = Phase.values();
+    private final long[] phaseStart = new long[PHASES.length];
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final float[] phaseMillis = new float[PHASES.length];
+
+    private final float[] frameMillis = new float[WINDOW];
+    private final boolean[] frameHadGc = new boolean[WINDOW];
+    private final float[] sorted = new float[WINDOW];
+    private int head;   // index the next frame is written to
+    private int count;
+    private int framesSincePercentiles;
+    private float p50, p95, p99;
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private long lastGcCount = -1;
+    private int gcEvents;
+
+    private long frameStart;
+
+    /**
+     * Starts a frame; the time since the previous call is recorded as the last frame's duration.
+     */
+    public void beginFrame() {
+        long now = System.nanoTime();
+        if (frameStart != 0) {
+            recordFrame((now - frameStart) / 1_000_000f);
+        }
+        frameStart = now;
+        Arrays.fill(phaseNanos, 0L);
+    }
+
+    public void begin(Phase phase) {
+        phaseStart[phase.ordinal()] = System.nanoTime();
+    }
+
+    public void end(Phase phase) {
+        int i = phase.ordinal();
+        phaseNanos[i] += System.nanoTime() - phaseStart[i];
+    }
+
+    /**
+     * Adds time measured elsewhere, e.g. once per simulation tick when a frame runs several ticks.
+     */
+    public void add(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    private void recordFrame(float millis) {
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseMillis[i] += (phaseNanos[i] / 1_000_000f - phaseMillis[i]) * SMOOTHING;
+        }
+
+        long gcCount = 0;
+        for (int i = 0, n = collectors.size(); i < n; i++) {
+            gcCount += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        boolean hadGc = lastGcCount >= 0 && gcCount > lastGcCount;
+        if (hadGc) gcEvents += (int) (gcCount - lastGcCount);
+        lastGcCount = gcCount;
+
+        frameMillis[head] = millis;
+        frameHadGc[head] = hadGc;
+        head = (head + 1) % WINDOW;
+        if (count < WINDOW) count++;
+
+        if (++framesSincePercentiles >= PERCENTILE_INTERVAL) {
+            framesSincePercentiles = 0;
+            System.arraycopy(frameMillis, 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+            p50 = percentile(0.50f);
+            p95 = percentile(0.95f);
+            p99 = percentile(0.99f);
+        }
+    }
+
+    private float percentile(float fraction) {
+        int index = Math.min(count - 1, (int) Math.ceil(fraction * count) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * Smoothed time spent in {@code phase} per frame, in milliseconds.
+     */
+    public float getPhaseMillis(Phase phase) {
+        return phaseMillis[phase.ordinal()];
+    }
+
+    public int getFrameCount() {
+        return count;
+    }
+
+    /**
+     * Frame time in milliseconds, {@code age} frames ago (0 is the most recent frame).
+     */
+    public float getFrameMillis(int age) {
+        return frameMillis[(head - 1 - age + WINDOW * 2) % WINDOW];
+    }
+
+    public boolean hadGc(int age) {
+        return frameHadGc[(head - 1 - age + WINDOW * 2) % WINDOW];
+    }
+
+    public float getP50() {
+        return p50;
+    }
+
+    public float getP95() {
+        return p95;
+    }
+
+    public float getP99() {
+        return p99;
+    }
+
+    /**
+     * Garbage collections seen since this profiler was created.
+     */
+    public int getGcEvents() {
+        return gcEvents;
+    }
+}
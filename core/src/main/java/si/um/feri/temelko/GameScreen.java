@@ -4,175 +4,250 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.NinePatch;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.ScreenUtils;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
+import java.io.IOException;
+
+public class GameScreen extends ScreenAdapter implements RoadSimulation.Listener, GameSettings.Listener {
+    // Size of the world and HUD in virtual pixels, whatever the window size; the view is letterboxed to fit
+    public static final float WORLD_WIDTH = RoadSimulation.WORLD_WIDTH;
+    public static final float WORLD_HEIGHT = RoadSimulation.WORLD_HEIGHT;
 
-public class GameScreen extends ScreenAdapter {
     private final RoadGame game;
     private final AssetManager assetManager;
     private final GameSettings settings;
+    // Latest settings, replaced by settingsChanged, so the game loop never queries the settings store
+    private GameSettings.Snapshot currentSettings;
     private SpriteBatch batch;
-    private ShapeRenderer shapeRenderer;
-    private Texture carImg, obstacleImg, fuelImg, powerUpImg, backgroundImg, bulletImg;
-    private Sound crashSound, powerUpSound, fuelSound, shootSound;
-    private BitmapFont font;
-
-    private Rectangle car;
-    private List<Rectangle> obstacles, fuels, powerUps, bullets;
-    private Random random;
-    private float obstacleSpawnTimer, fuelSpawnTimer, powerUpSpawnTimer, shootCooldown;
-
-    private int score;
-    private float currentHealth = 100f;
-    private boolean isInvincible = false;
-    private float invincibleTimer = 0f;
+    // Road, roadside and trees, each one repeating quad scrolled by texture coordinates
+    private final ScrollingBackground background = new ScrollingBackground();
+    // Gameplay sprites all come from one atlas page, so drawing them never switches textures
+    private TextureAtlas.AtlasRegion carImg, obstacleImg, fuelImg, powerUpImg, bulletImg;
+    private HudBar hudBar;
+    // Sound effects go through the AudioManager, which caps voices and applies the volume setting
+    private AudioManager audio;
+    private AudioManager.Effect crashEffect, powerUpEffect, fuelEffect, shootEffect;
+    // Font sizes at the virtual resolution; each size is its own font, so the scale never changes inside the batch
+    private static final int HUD_FONT_SIZE = 30;
+    private static final int FPS_FONT_SIZE = 22;
+    private static final int SCORE_FONT_SIZE = 38;
+    private static final int TITLE_FONT_SIZE = 60;
+    private static final int PROFILER_FONT_SIZE = 18;
+    // Font sizes follow the screen in steps, so resizing a window does not render a font for every size
+    private static final float HUD_SCALE_STEP = 0.125f;
+    private BitmapFont hudFont, fpsFont, scoreFont, titleFont;
+    // The HUD is drawn in screen pixels over the scaled-up world, at positions in virtual units times hudScale
+    private final OrthographicCamera hudCamera = new OrthographicCamera();
+    private float hudScale = 1f;
+    private TextureRegion hudWhite;
+    private HudText scoreText, speedText, fpsText, finalScoreText;
+    private HudText gameOverText, restartText, leaderboardText;
+    // Frame-time profiler, only measuring while its overlay is enabled in the settings
+    private final FrameProfiler profiler = new FrameProfiler();
+    private BitmapFont profilerFont;
+    private ProfilerOverlay profilerOverlay;
+    private boolean showProfiler;
+    // Batch statistics of the previous frame, summed over the world and HUD batches
+    private int lastRenderCalls;
+    private int lastMaxSpritesInBatch;
+    private final MetricsRegistry.Histogram updateTime;
+    private final MetricsRegistry.Counter simulationTicks;
+    private final MetricsRegistry.Counter runs;
+    private final MetricsRegistry.Gauge entityCount;
+    // The world is drawn off-screen at a size that follows the frame time, then scaled to the screen
+    private final DynamicResolution resolution;
+
+    // All gameplay state lives in the simulation; this screen only feeds input, renders and plays sounds
+    private final RoadSimulation simulation = new RoadSimulation();
+    // The simulation always advances in fixed ticks so a run depends only on its seed and inputs
+    private static final float FIXED_TICK = RoadSimulation.FIXED_TICK;
+    // Longest frame time simulated at once, so a stall does not trigger a burst of catch-up ticks
+    private static final float MAX_FRAME_TIME = 0.25f;
+    private static final String LAST_REPLAY_PATH = "replays/last.replay";
+    private final ReplayRecorder replayRecorder = new ReplayRecorder();
+    private float tickAccumulator;
 
     // --- Background scrolling ---
-    private float backgroundY1 = 0f;
-    private float backgroundY2;
-    private float backgroundHeight;
-
-    // --- Game speed ---
-    private float gameSpeedMultiplier = 1f;
-    private float difficultySpeedMultiplier = 1f;
-    private float difficultySpawnRate = 1f;
-
-    // --- Image scaling constants ---
-    private static final float CAR_SCALE = 0.7f;
-    private static final float OBSTACLE_SCALE = 0.3f;
-    private static final float FUEL_SCALE = 0.15f;
-    private static final float POWERUP_SCALE = 0.15f;
-    private static final float BULLET_SCALE = 0.08f;
-
-    // --- Base speeds ---
-    private static final float CAR_SPEED = 500f;
-    private static final float OBSTACLE_SPEED = 300f;
-    private static final float FUEL_SPEED = 250f;
-    private static final float POWER_UP_SPEED = 220f;
-    private static final float BULLET_SPEED = 700f;
-    private static final float SHOOT_COOLDOWN_TIME = 0.25f;
-
-    // --- Scaled sizes ---
-    private float carWidth, carHeight;
-    private float obstacleWidth, obstacleHeight;
-    private float fuelWidth, fuelHeight;
-    private float powerUpWidth, powerUpHeight;
-    private float bulletWidth, bulletHeight;
-
-    private boolean isGameOver = false;
+    // Road speed in pixels per second at a total speed multiplier of 1
+    private static final float BACKGROUND_SCROLL_SPEED = 200f;
+    // Width of each roadside verge, as a fraction of the screen width
+    private static final float ROADSIDE_WIDTH = 0.06f;
+    // Tree tops are closer to the camera than the road, so they pass faster
+    private static final float SCENERY_SPEED_FACTOR = 1.3f;
+
     private boolean scoreSaved = false;
+    // Sprites, fonts and HUD texts are looked up and created once, see prepare()
+    private boolean prepared = false;
 
     public GameScreen(RoadGame game) {
         this.game = game;
         this.assetManager = game.getAssetManager();
         this.settings = game.getSettings();
+        simulation.setListener(this);
+
+        MetricsRegistry metrics = game.getMetrics();
+        updateTime = metrics.timer("game.update.time");
+        simulationTicks = metrics.counter("game.ticks");
+        runs = metrics.counter("game.runs");
+        entityCount = metrics.gauge("game.entities");
+        resolution = new DynamicResolution(WORLD_WIDTH, WORLD_HEIGHT, metrics);
     }
 
     @Override
     public void show() {
-        batch = game.getBatch();
-        shapeRenderer = game.getRenderer();
-        
+        prepare();
+
         // Ensure keyboard input is active (no Stage input processor)
         Gdx.input.setInputProcessor(null);
-        
+
         // Stop background music during gameplay
         game.stopMusic();
-        
-        // Load assets from AssetManager
-        carImg = assetManager.get("images/car.png", Texture.class);
-        obstacleImg = assetManager.get("images/obstacle.png", Texture.class);
-        fuelImg = assetManager.get("images/fuel.png", Texture.class);
-        powerUpImg = assetManager.get("images/power-up.png", Texture.class);
-        bulletImg = assetManager.get("images/bullet.png", Texture.class);
-        backgroundImg = assetManager.get("images/background.png", Texture.class);
-
-        crashSound = assetManager.get("sounds/crash.wav", Sound.class);
-        powerUpSound = assetManager.get("sounds/power-up.wav", Sound.class);
-        fuelSound = assetManager.get("sounds/collect.wav", Sound.class);
-        shootSound = assetManager.get("sounds/shoot.wav", Sound.class);
-
-        // Create default font for game UI
-        font = game.createDefaultFont();
-        font.setColor(Color.WHITE);
-        font.getData().setScale(2f);
-
-        setupScaledSizes();
+
+        applySettings(settings.getSnapshot());
+        settings.addListener(this);
         resetGame();
+
+        // Aim for one frame per refresh of the display the game is on
+        int refreshRate = Gdx.graphics.getDisplayMode().refreshRate;
+        resolution.setFrameBudget(1f / (refreshRate > 0 ? refreshRate : 60));
     }
 
-    private void setupScaledSizes() {
-        carWidth = carImg.getWidth() * CAR_SCALE;
-        carHeight = carImg.getHeight() * CAR_SCALE;
-        obstacleWidth = obstacleImg.getWidth() * OBSTACLE_SCALE;
-        obstacleHeight = obstacleImg.getHeight() * OBSTACLE_SCALE;
-        fuelWidth = fuelImg.getWidth() * FUEL_SCALE;
-        fuelHeight = fuelImg.getHeight() * FUEL_SCALE;
-        powerUpWidth = powerUpImg.getWidth() * POWERUP_SCALE;
-        powerUpHeight = powerUpImg.getHeight() * POWERUP_SCALE;
-        bulletWidth = bulletImg.getWidth() * BULLET_SCALE;
-        bulletHeight = bulletImg.getHeight() * BULLET_SCALE;
+    @Override
+    public void resize(int width, int height) {
+        resolution.resize(width, height);
+        hudScale = resolution.getScreenHeight() / WORLD_HEIGHT;
+        hudCamera.setToOrtho(false, resolution.getScreenWidth(), resolution.getScreenHeight());
+        if (prepared) scaleHud();
+    }
+
+    /**
+     * Looks up the sprites, sounds and fonts and creates the HUD texts. Runs on the first show, or earlier when
+     * {@link RoadGame#prewarmGameScreen()} is called while the menu is idle.
+     */
+    public void prepare() {
+        if (prepared) return;
+        batch = game.getBatch();
+
+        // Load assets from AssetManager
+        TextureAtlas atlas = game.getGameplayAtlas();
+        carImg = atlas.findRegion("car");
+        obstacleImg = atlas.findRegion("obstacle");
+        fuelImg = atlas.findRegion("fuel");
+        powerUpImg = atlas.findRegion("power-up");
+        bulletImg = atlas.findRegion("bullet");
+        hudWhite = atlas.findRegion("hud-white");
+        hudBar = new HudBar(hudWhite, new NinePatch(atlas.findRegion("hud-frame"), 1, 1, 1, 1));
+        setupBackground();
+
+        // Crashes matter most and are never stolen by the rapid-fire shots
+        audio = game.getAudio();
+        SoundBank sounds = game.getSoundBank();
+        crashEffect = registerEffect(sounds, "crash", 2, 3, 0.5f);
+        powerUpEffect = registerEffect(sounds, "power-up", 1, 2, 0.5f);
+        fuelEffect = registerEffect(sounds, "collect", 2, 1, 0.5f);
+        shootEffect = registerEffect(sounds, "shoot", 3, 0, 0.3f);
+
+        createHud();
+        prepared = true;
+    }
+
+    /**
+     * Creates the HUD texts and the profiler overlay, once; {@link #scaleHud()} fits them to the screen afterwards.
+     */
+    private void createHud() {
+        loadHudFonts();
+        scoreText = new HudText(hudFont, "Score: ");
+        speedText = new HudText(hudFont, "Speed x");
+        fpsText = new HudText(fpsFont, "FPS: ");
+        finalScoreText = new HudText(scoreFont, "Final Score: ");
+        gameOverText = new HudText(titleFont, "GAME OVER");
+        restartText = new HudText(hudFont, "Press R to Restart");
+        leaderboardText = new HudText(hudFont, "Press L for Leaderboard");
+        profilerOverlay = new ProfilerOverlay(profiler, hudWhite, profilerFont, hudScale);
+    }
+
+    /**
+     * Switches the HUD texts and the profiler overlay to fonts rendered at their size on screen; called when the
+     * screen size changes.
+     */
+    private void scaleHud() {
+        loadHudFonts();
+        scoreText.setFont(hudFont);
+        speedText.setFont(hudFont);
+        fpsText.setFont(fpsFont);
+        finalScoreText.setFont(scoreFont);
+        gameOverText.setFont(titleFont);
+        restartText.setFont(hudFont);
+        leaderboardText.setFont(hudFont);
+        profilerOverlay.setScale(profilerFont, hudScale);
+    }
+
+    private void loadHudFonts() {
+        float fontScale = Math.max(HUD_SCALE_STEP, Math.round(hudScale / HUD_SCALE_STEP) * HUD_SCALE_STEP);
+        hudFont = game.getFont(Math.round(HUD_FONT_SIZE * fontScale));
+        fpsFont = game.getFont(Math.round(FPS_FONT_SIZE * fontScale));
+        scoreFont = game.getFont(Math.round(SCORE_FONT_SIZE * fontScale));
+        titleFont = game.getFont(Math.round(TITLE_FONT_SIZE * fontScale));
+        profilerFont = game.getFont(Math.round(PROFILER_FONT_SIZE * fontScale));
+    }
+
+    // HUD position or size in screen pixels for a value in virtual units
+    private float hud(float units) {
+        return units * hudScale;
+    }
+
+    private void setupBackground() {
+        Texture road = assetManager.get("images/background.png", Texture.class);
+        Texture roadside = assetManager.get("images/roadside.png", Texture.class);
+        Texture scenery = assetManager.get("images/scenery.png", Texture.class);
+        background.addLayer(road, 0f, 1f, 1f, false);
+        // The verge textures have the kerb on their right, so the left verge is mirrored to face the road
+        background.addLayer(roadside, 0f, ROADSIDE_WIDTH, 1f, true);
+        background.addLayer(roadside, 1f - ROADSIDE_WIDTH, ROADSIDE_WIDTH, 1f, false);
+        background.addLayer(scenery, 0f, ROADSIDE_WIDTH, SCENERY_SPEED_FACTOR, true);
+        background.addLayer(scenery, 1f - ROADSIDE_WIDTH, ROADSIDE_WIDTH, SCENERY_SPEED_FACTOR, false);
+    }
+
+    private AudioManager.Effect registerEffect(SoundBank sounds, String name, int maxVoices, int priority, float gain) {
+        return audio.register(sounds.getSound(name), maxVoices, priority, gain, sounds.getDuration(name));
     }
 
     private void resetGame() {
-        car = new Rectangle(Gdx.graphics.getWidth() / 2f - carWidth / 2f, 100f, carWidth, carHeight);
-        obstacles = new ArrayList<>();
-        fuels = new ArrayList<>();
-        powerUps = new ArrayList<>();
-        bullets = new ArrayList<>();
-        random = new Random();
-
-        obstacleSpawnTimer = 0;
-        fuelSpawnTimer = 0;
-        powerUpSpawnTimer = 0;
-        shootCooldown = 0;
-
-        score = 0;
-        currentHealth = 100f;
-        isInvincible = false;
-        invincibleTimer = 0f;
-        gameSpeedMultiplier = 1f;
-        isGameOver = false;
+        simulation.reset(currentSettings.difficulty);
+        replayRecorder.begin(simulation, FIXED_TICK);
+        runs.increment();
+        tickAccumulator = 0f;
         scoreSaved = false;
 
-        // Apply difficulty settings
-        GameSettings.Difficulty difficulty = settings.getDifficulty();
-        difficultySpeedMultiplier = difficulty.getSpeedMultiplier();
-        difficultySpawnRate = difficulty.getObstacleSpawnRate();
-
-        // Background setup
-        float scale = (float) Gdx.graphics.getWidth() / backgroundImg.getWidth();
-        backgroundHeight = backgroundImg.getHeight() * scale;
-        backgroundY1 = 0f;
-        backgroundY2 = backgroundHeight;
+        background.setSize(WORLD_WIDTH, WORLD_HEIGHT);
     }
 
     @Override
     public void render(float delta) {
+        if (showProfiler) profiler.beginFrame();
+
         // Handle ESC key to return to menu
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            game.setScreen(new MenuScreen(game));
+            game.showMenu();
             return;
         }
 
-        if (!isGameOver) {
+        if (!simulation.isGameOver()) {
             update(delta);
-            if (currentHealth <= 0) {
-                isGameOver = true;
+            if (simulation.isGameOver()) {
                 // Save score to leaderboard
                 if (!scoreSaved) {
-                    String playerName = settings.getPlayerName();
-                    settings.addScore(playerName, score);
+                    String playerName = currentSettings.playerName;
+                    settings.addScore(playerName, simulation.getScore(), simulation.getDifficulty());
+                    saveReplay();
                     scoreSaved = true;
                 }
             }
@@ -183,254 +258,197 @@ public class GameScreen extends ScreenAdapter {
             }
             // Leaderboard button
             if (Gdx.input.isKeyJustPressed(Input.Keys.L)) {
-                game.setScreen(new LeaderboardScreen(game));
+                game.showLeaderboard();
                 return;
             }
         }
 
-        ScreenUtils.clear(0f, 0f, 0f, 0f);
-
+        resolution.update(delta);
+        if (showProfiler) profiler.begin(FrameProfiler.Phase.WORLD_DRAW);
+        resolution.begin(batch);
+        // The batch keeps its largest batch forever; reset it to report this frame's
+        batch.maxSpritesInBatch = 0;
         batch.begin();
+        // The road layer covers the whole buffer, so it is not cleared
 
         // Draw background
-        batch.draw(backgroundImg, 0, backgroundY1, Gdx.graphics.getWidth(), backgroundHeight);
-        batch.draw(backgroundImg, 0, backgroundY2, Gdx.graphics.getWidth(), backgroundHeight);
+        background.draw(batch);
 
-        if (!isGameOver) {
+        if (!simulation.isGameOver()) {
             // Draw game objects
+            Rectangle car = simulation.getCar();
             batch.draw(carImg, car.x, car.y, car.width, car.height);
 
-            for (Rectangle obstacle : obstacles)
-                batch.draw(obstacleImg, obstacle.x, obstacle.y, obstacle.width, obstacle.height);
-            for (Rectangle fuel : fuels)
-                batch.draw(fuelImg, fuel.x, fuel.y, fuel.width, fuel.height);
-            for (Rectangle powerUp : powerUps)
-                batch.draw(powerUpImg, powerUp.x, powerUp.y, powerUp.width, powerUp.height);
-            for (Rectangle bullet : bullets)
-                batch.draw(bulletImg, bullet.x, bullet.y, bullet.width, bullet.height);
-
-            font.draw(batch, "Score: " + score, 20, Gdx.graphics.getHeight() - 20);
-            font.draw(batch, "Speed x" + String.format("%.2f", gameSpeedMultiplier * difficultySpeedMultiplier), 20, Gdx.graphics.getHeight() - 140);
-            
-            // Show FPS if enabled
-            if (settings.isShowFps()) {
-                font.getData().setScale(1.5f);
-                font.draw(batch, "FPS: " + Gdx.graphics.getFramesPerSecond(), Gdx.graphics.getWidth() - 120, Gdx.graphics.getHeight() - 20);
-                font.getData().setScale(2f);
+            drawEntities(obstacleImg, simulation.getObstacles());
+            drawEntities(fuelImg, simulation.getFuels());
+            drawEntities(powerUpImg, simulation.getPowerUps());
+            drawEntities(bulletImg, simulation.getBullets());
+        }
+
+        batch.end();
+        int renderCalls = batch.renderCalls;
+        resolution.end(batch);
+
+        // Scale the world up to the screen, and draw the HUD over it at screen resolution
+        ScreenUtils.clear(0f, 0f, 0f, 0f);
+        batch.begin();
+        resolution.drawWorld(batch);
+        batch.setProjectionMatrix(hudCamera.combined);
+        if (showProfiler) {
+            profiler.end(FrameProfiler.Phase.WORLD_DRAW);
+            profiler.begin(FrameProfiler.Phase.HUD_DRAW);
+        }
+
+        if (!simulation.isGameOver()) {
+            drawBars();
+
+            scoreText.setValue(simulation.getScore());
+            scoreText.draw(batch, hud(20), hud(WORLD_HEIGHT - 20));
+            speedText.setValue(simulation.getTotalSpeedMultiplier());
+            speedText.draw(batch, hud(20), hud(WORLD_HEIGHT - 140));
+
+            // The profiler overlay includes the FPS, so it replaces the plain counter
+            if (showProfiler) {
+                profilerOverlay.draw(batch, simulation, lastRenderCalls, lastMaxSpritesInBatch,
+                    hud(WORLD_WIDTH - 20), hud(WORLD_HEIGHT - 20));
+            } else if (currentSettings.showFps) {
+                fpsText.setValue(Gdx.graphics.getFramesPerSecond());
+                fpsText.draw(batch, hud(WORLD_WIDTH - 120), hud(WORLD_HEIGHT - 20));
             }
         } else {
             // Game Over Screen
-            font.getData().setScale(4f);
-            font.draw(batch, "GAME OVER", Gdx.graphics.getWidth() / 2f - 175, Gdx.graphics.getHeight() / 2f + 100);
-            font.getData().setScale(2.5f);
-            font.draw(batch, "Final Score: " + score, Gdx.graphics.getWidth() / 2f - 110, Gdx.graphics.getHeight() / 2f + 20);
-            font.getData().setScale(2f);
-            font.draw(batch, "Press R to Restart", Gdx.graphics.getWidth() / 2f - 120, Gdx.graphics.getHeight() / 2f - 40);
-            font.draw(batch, "Press L for Leaderboard", Gdx.graphics.getWidth() / 2f - 150, Gdx.graphics.getHeight() / 2f - 90);
+            float centerX = hud(WORLD_WIDTH / 2f);
+            gameOverText.draw(batch, centerX - gameOverText.getWidth() / 2f, hud(WORLD_HEIGHT / 2f + 100));
+            finalScoreText.setValue(simulation.getScore());
+            finalScoreText.draw(batch, centerX - finalScoreText.getWidth() / 2f, hud(WORLD_HEIGHT / 2f + 20));
+            restartText.draw(batch, centerX - restartText.getWidth() / 2f, hud(WORLD_HEIGHT / 2f - 40));
+            leaderboardText.draw(batch, centerX - leaderboardText.getWidth() / 2f, hud(WORLD_HEIGHT / 2f - 90));
         }
 
         batch.end();
+        // begin() resets renderCalls, so each batch's calls are added up after its end()
+        lastRenderCalls = renderCalls + batch.renderCalls;
+        lastMaxSpritesInBatch = batch.maxSpritesInBatch;
+        if (showProfiler) profiler.end(FrameProfiler.Phase.HUD_DRAW);
+    }
 
-        // Draw bars
-        if (!isGameOver) {
-            drawBars();
+    private void drawEntities(TextureRegion region, EntityPool entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            batch.draw(region, entities.getX(i), entities.getY(i), entities.getWidth(i), entities.getHeight(i));
         }
     }
 
     private void drawBars() {
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
         // Health bar
-        float barX = 20;
-        float barY = Gdx.graphics.getHeight() - 80;
-        float barWidth = 200;
-        float barHeight = 20;
+        float barX = hud(20);
+        float barY = hud(WORLD_HEIGHT - 80);
+        float barWidth = hud(200);
+        float barHeight = hud(20);
 
-        // Background
-        shapeRenderer.setColor(Color.DARK_GRAY);
-        shapeRenderer.rect(barX, barY, barWidth, barHeight);
-
-        // Health fill
-        float healthPercent = currentHealth / 100f;
+        float healthPercent = simulation.getCurrentHealth() / RoadSimulation.MAX_HEALTH;
+        Color healthColor;
         if (healthPercent > 0.6f) {
-            shapeRenderer.setColor(Color.GREEN);
+            healthColor = Color.GREEN;
         } else if (healthPercent > 0.3f) {
-            shapeRenderer.setColor(Color.YELLOW);
+            healthColor = Color.YELLOW;
         } else {
-            shapeRenderer.setColor(Color.RED);
+            healthColor = Color.RED;
         }
-        shapeRenderer.rect(barX, barY, barWidth * healthPercent, barHeight);
-
-        // Border
-        shapeRenderer.end();
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        shapeRenderer.setColor(Color.WHITE);
-        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        hudBar.draw(batch, barX, barY, barWidth, barHeight, healthPercent, healthColor);
 
         // Power-up bar
-        if (isInvincible) {
-            float powerBarY = Gdx.graphics.getHeight() - 120;
-
-            shapeRenderer.end();
-            shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
-            // Background
-            shapeRenderer.setColor(Color.DARK_GRAY);
-            shapeRenderer.rect(barX, powerBarY, barWidth, barHeight);
-
-            // Power-up fill
-            float powerPercent = invincibleTimer / 3f;
-            shapeRenderer.setColor(Color.CYAN);
-            shapeRenderer.rect(barX, powerBarY, barWidth * powerPercent, barHeight);
-
-            // Border
-            shapeRenderer.end();
-            shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-            shapeRenderer.setColor(Color.WHITE);
-            shapeRenderer.rect(barX, powerBarY, barWidth, barHeight);
+        if (simulation.isInvincible()) {
+            float powerBarY = hud(WORLD_HEIGHT - 120);
+            float powerPercent = simulation.getInvincibleTimer() / RoadSimulation.INVINCIBILITY_DURATION;
+            hudBar.draw(batch, barX, powerBarY, barWidth, barHeight, powerPercent, Color.CYAN);
         }
-
-        shapeRenderer.end();
     }
 
     private void update(float delta) {
-        // Background movement (apply difficulty multiplier)
-        float backgroundScrollSpeed = 200f;
-        float totalSpeedMultiplier = gameSpeedMultiplier * difficultySpeedMultiplier;
-        backgroundY1 -= backgroundScrollSpeed * delta * totalSpeedMultiplier;
-        backgroundY2 -= backgroundScrollSpeed * delta * totalSpeedMultiplier;
-        if (backgroundY1 + backgroundHeight <= 0) backgroundY1 = backgroundY2 + backgroundHeight;
-        if (backgroundY2 + backgroundHeight <= 0) backgroundY2 = backgroundY1 + backgroundHeight;
-
-        // Car movement (apply difficulty multiplier)
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT))
-            car.x -= CAR_SPEED * delta * totalSpeedMultiplier;
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT))
-            car.x += CAR_SPEED * delta * totalSpeedMultiplier;
-        if (Gdx.input.isKeyPressed(Input.Keys.SPACE))
-            shoot();
-
-        car.x = Math.max(0, Math.min(Gdx.graphics.getWidth() - car.width, car.x));
-
-        if (shootCooldown > 0) shootCooldown -= delta;
-
-        // Spawning (apply difficulty spawn rate)
-        obstacleSpawnTimer += delta;
-        fuelSpawnTimer += delta;
-        powerUpSpawnTimer += delta;
-
-        float obstacleSpawnInterval = 1f / difficultySpawnRate;
-        if (obstacleSpawnTimer > obstacleSpawnInterval) {
-            obstacles.add(new Rectangle(random.nextInt(Gdx.graphics.getWidth() - (int)obstacleWidth),
-                Gdx.graphics.getHeight(), obstacleWidth, obstacleHeight));
-            obstacleSpawnTimer = 0f;
-        }
-        if (fuelSpawnTimer > 2f) {
-            fuels.add(new Rectangle(random.nextInt(Gdx.graphics.getWidth() - (int)fuelWidth),
-                Gdx.graphics.getHeight(), fuelWidth, fuelHeight));
-            fuelSpawnTimer = 0f;
+        long start = System.nanoTime();
+        // Background movement, following the game and difficulty speed
+        background.scroll(BACKGROUND_SCROLL_SPEED * delta * simulation.getTotalSpeedMultiplier());
+
+        // Feed the input snapshot and advance the simulation in fixed ticks, recording each one
+        if (showProfiler) profiler.begin(FrameProfiler.Phase.INPUT);
+        RoadSimulation.InputState input = simulation.getInput();
+        input.left = Gdx.input.isKeyPressed(Input.Keys.LEFT);
+        input.right = Gdx.input.isKeyPressed(Input.Keys.RIGHT);
+        input.shoot = Gdx.input.isKeyPressed(Input.Keys.SPACE);
+        if (showProfiler) {
+            profiler.end(FrameProfiler.Phase.INPUT);
+            profiler.begin(FrameProfiler.Phase.UPDATE);
         }
-        if (powerUpSpawnTimer > 5f) {
-            powerUps.add(new Rectangle(random.nextInt(Gdx.graphics.getWidth() - (int)powerUpWidth),
-                Gdx.graphics.getHeight(), powerUpWidth, powerUpHeight));
-            powerUpSpawnTimer = 0f;
+        tickAccumulator += Math.min(delta, MAX_FRAME_TIME);
+        while (tickAccumulator >= FIXED_TICK && !simulation.isGameOver()) {
+            replayRecorder.record(input);
+            simulation.step(FIXED_TICK);
+            tickAccumulator -= FIXED_TICK;
+            simulationTicks.increment();
         }
+        if (showProfiler) profiler.end(FrameProfiler.Phase.UPDATE);
 
-        // Move obstacles (apply difficulty multiplier)
-        for (Iterator<Rectangle> obstacleIterator = obstacles.iterator(); obstacleIterator.hasNext();) {
-            Rectangle obstacle = obstacleIterator.next();
-            obstacle.y -= OBSTACLE_SPEED * delta * totalSpeedMultiplier;
-            if (obstacle.overlaps(car) && !isInvincible) {
-                obstacleIterator.remove();
-                currentHealth -= 20f;
-                if (currentHealth < 0f) currentHealth = 0f;
-                float volume = settings.getSoundVolume();
-                crashSound.play(volume * 0.5f);
-                // permanent boost after crash
-                float speedIncreasePerCrash = 0.1f;
-                gameSpeedMultiplier += speedIncreasePerCrash;
-            }
-            if (obstacle.y + obstacle.height < 0) obstacleIterator.remove();
-        }
+        entityCount.set(simulation.getObstacles().size() + simulation.getFuels().size()
+            + simulation.getPowerUps().size() + simulation.getBullets().size());
+        updateTime.recordSince(start);
+    }
 
-        // Move fuels (apply difficulty multiplier)
-        for (Iterator<Rectangle> fuelIterator = fuels.iterator(); fuelIterator.hasNext();) {
-            Rectangle fuel = fuelIterator.next();
-            fuel.y -= FUEL_SPEED * delta * totalSpeedMultiplier;
-            if (fuel.overlaps(car)) {
-                fuelIterator.remove();
-                currentHealth = Math.min(100f, currentHealth + 10f);
-                score += 5;
-                float volume = settings.getSoundVolume();
-                fuelSound.play(volume * 0.5f);
-            }
-            if (fuel.y + fuel.height < 0) fuelIterator.remove();
+    private void saveReplay() {
+        replayRecorder.end(simulation.getScore());
+        try {
+            // Only encoded here; the file is written on the background writer
+            settings.writeLocalFile(LAST_REPLAY_PATH, replayRecorder.toByteArray());
+        } catch (IOException | RuntimeException e) {
+            // A missing replay must never interrupt the game
+            Gdx.app.error("GameScreen", "Could not save replay", e);
         }
+    }
 
-        // Move power-ups (apply difficulty multiplier)
-        for (Iterator<Rectangle> powerUpIterator = powerUps.iterator(); powerUpIterator.hasNext();) {
-            Rectangle powerUp = powerUpIterator.next();
-            powerUp.y -= POWER_UP_SPEED * delta * totalSpeedMultiplier;
-            if (powerUp.overlaps(car)) {
-                powerUpIterator.remove();
-                isInvincible = true;
-                invincibleTimer = 3f;
-                float volume = settings.getSoundVolume();
-                powerUpSound.play(volume * 0.5f);
-            }
-            if (powerUp.y + powerUp.height < 0) powerUpIterator.remove();
-        }
+    @Override
+    public void onCrash() {
+        audio.play(crashEffect);
+    }
 
-        if (isInvincible) {
-            invincibleTimer -= delta;
-            if (invincibleTimer <= 0f) isInvincible = false;
-        }
+    @Override
+    public void onFuelCollected() {
+        audio.play(fuelEffect);
+    }
 
-        // Bullets (apply difficulty multiplier)
-        for (Iterator<Rectangle> bulletIterator = bullets.iterator(); bulletIterator.hasNext();) {
-            Rectangle bullet = bulletIterator.next();
-            bullet.y += BULLET_SPEED * delta * totalSpeedMultiplier;
-            if (bullet.y > Gdx.graphics.getHeight()) bulletIterator.remove();
-            for (Iterator<Rectangle> obstacleIter = obstacles.iterator(); obstacleIter.hasNext();) {
-                Rectangle obstacle = obstacleIter.next();
-                if (bullet.overlaps(obstacle)) {
-                    obstacleIter.remove();
-                    bulletIterator.remove();
-                    score += 10;
-                    break;
-                }
-            }
-        }
+    @Override
+    public void onPowerUpCollected() {
+        audio.play(powerUpEffect);
     }
 
-    private void shoot() {
-        if (shootCooldown <= 0f) {
-            bullets.add(new Rectangle(car.x + car.width / 2f - bulletWidth / 2f, car.y + car.height,
-                bulletWidth, bulletHeight));
-            float volume = settings.getSoundVolume();
-            shootSound.play(volume * 0.3f);
-            shootCooldown = SHOOT_COOLDOWN_TIME;
-        }
+    @Override
+    public void onShot() {
+        audio.play(shootEffect);
+    }
+
+    @Override
+    public void settingsChanged(GameSettings.Snapshot previous, GameSettings.Snapshot current) {
+        applySettings(current);
+    }
+
+    private void applySettings(GameSettings.Snapshot snapshot) {
+        currentSettings = snapshot;
+        showProfiler = snapshot.showProfiler;
+        simulation.setProfiler(showProfiler ? profiler : null);
     }
 
     @Override
     public void hide() {
+        settings.removeListener(this);
         // Resume background music when leaving game
         game.playMusic();
         // Reset input processor to prevent dangling references
         Gdx.input.setInputProcessor(null);
-        dispose();
+        // The screen is cached by RoadGame, so its HUD texts are kept for the next run
     }
 
     @Override
     public void dispose() {
-        // Dispose font since it's not managed by AssetManager
-        if (font != null) {
-            font.dispose();
-            font = null;
-        }
-        // All other resources (Textures, Sounds) are managed by AssetManager
+        resolution.dispose();
+        // Fonts are owned by RoadGame; all other resources (Textures, TextureAtlas, Sounds) are managed by AssetManager
         // Viewport is just a data structure and doesn't need disposal
     }
 }
-
@@ -3,13 +3,32 @@ package si.um.feri.temelko;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.SnapshotArray;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
 
 /**
- * Manages game settings and persists them using Preferences.
+ * Manages game settings and the leaderboard.
+ * Settings are kept in memory; a change only marks them dirty, and they are written to
+ * {@value #SETTINGS_FILE} once they have been left alone for {@link #SAVE_DELAY_MILLIS}, or right away
+ * on {@link #save()} and {@link #dispose()}. Writes go through a {@link PersistenceWriter}, which
+ * replaces the file atomically on a background thread. Values saved by older versions in
+ * {@link Preferences} are migrated on the first start.
+ * <p>
+ * Every change also publishes a new immutable {@link Snapshot} and notifies the registered
+ * {@link Listener}s, so hot paths read plain final fields and react to changes instead of polling.
  */
 public class GameSettings {
     private static final String PREFS_NAME = "road_game_settings";
+    private static final String SETTINGS_FILE = "settings.properties";
     private static final int MAX_LEADERBOARD_ENTRIES = 10;
+    // Quiet period after the last change before settings are written, so slider drags cost one write
+    private static final long SAVE_DELAY_MILLIS = 500;
 
     // Setting keys
     private static final String KEY_SOUND_VOLUME = "sound_volume";
@@ -17,7 +36,11 @@ public class GameSettings {
     private static final String KEY_DIFFICULTY = "difficulty";
     private static final String KEY_FULLSCREEN = "fullscreen";
     private static final String KEY_SHOW_FPS = "show_fps";
+    private static final String KEY_SHOW_PROFILER = "show_profiler";
+    // Leaderboards from before the score store was introduced; migrated once, then removed
     private static final String KEY_LEADERBOARD = "leaderboard";
+    private static final String SCORE_LOG_FILE = "scores.log";
+    private static final String SCORE_INDEX_FILE = "scores.idx";
     private static final String KEY_PLAYER_NAME = "player_name";
     
     // Default values
@@ -26,9 +49,28 @@ public class GameSettings {
     private static final int DEFAULT_DIFFICULTY = 1; // 0=Easy, 1=Normal, 2=Hard
     private static final boolean DEFAULT_FULLSCREEN = false;
     private static final boolean DEFAULT_SHOW_FPS = false;
+    private static final boolean DEFAULT_SHOW_PROFILER = false;
     private static final String DEFAULT_PLAYER_NAME = "Player";
 
-    private final Preferences prefs;
+    private final File settingsFile;
+    private final MetricsRegistry.Counter flushCount;
+    private final MetricsRegistry.Histogram flushTime;
+    private final MetricsRegistry.Histogram leaderboardLoadTime;
+    private final MetricsRegistry.Histogram leaderboardSaveTime;
+    private final PersistenceWriter writer;
+    private final ScoreStore scores;
+
+    private float soundVolume;
+    private float musicVolume;
+    private int difficulty;
+    private boolean fullscreen;
+    private boolean showFps;
+    private boolean showProfiler;
+    private String playerName;
+    private boolean dirty;
+    private long lastChangeNanos;
+    private volatile Snapshot snapshot;
+    private final SnapshotArray<Listener> listeners = new SnapshotArray<>(Listener.class);
 
     public enum Difficulty {
         EASY("Easy"),
@@ -63,95 +105,333 @@ public class GameSettings {
         }
     }
 
+    /**
+     * Immutable view of all settings at one point in time.
+     */
+    public static final class Snapshot {
+        public final float soundVolume;
+        public final float musicVolume;
+        public final Difficulty difficulty;
+        public final boolean fullscreen;
+        public final boolean showFps;
+        public final boolean showProfiler;
+        public final String playerName;
+
+        Snapshot(float soundVolume, float musicVolume, Difficulty difficulty, boolean fullscreen,
+                 boolean showFps, boolean showProfiler, String playerName) {
+            this.soundVolume = soundVolume;
+            this.musicVolume = musicVolume;
+            this.difficulty = difficulty;
+            this.fullscreen = fullscreen;
+            this.showFps = showFps;
+            this.showProfiler = showProfiler;
+            this.playerName = playerName;
+        }
+    }
+
+    /**
+     * Notified on the thread that changed the settings, right after the new snapshot was published.
+     */
+    public interface Listener {
+        void settingsChanged(Snapshot previous, Snapshot current);
+    }
+
     public GameSettings() {
-        prefs = com.badlogic.gdx.Gdx.app.getPreferences(PREFS_NAME);
-        // Load defaults if preferences are empty
-        if (!prefs.contains(KEY_SOUND_VOLUME)) {
-            resetToDefaults();
+        this(new MetricsRegistry());
+    }
+
+    public GameSettings(MetricsRegistry metrics) {
+        flushCount = metrics.counter("settings.flushes");
+        flushTime = metrics.timer("settings.flush.time");
+        leaderboardLoadTime = metrics.timer("leaderboard.load.time");
+        leaderboardSaveTime = metrics.timer("leaderboard.save.time");
+        writer = new PersistenceWriter(metrics);
+        settingsFile = com.badlogic.gdx.Gdx.files.local(SETTINGS_FILE).file();
+
+        Preferences prefs = com.badlogic.gdx.Gdx.app.getPreferences(PREFS_NAME);
+        if (!load()) {
+            // First start, or settings saved by an older version in Preferences
+            migrateFromPreferences(prefs);
+            save();
         }
+        snapshot = createSnapshot();
+
+        // Every run is appended to the score store; startup only replays the runs since its last checkpoint
+        long start = System.nanoTime();
+        scores = openScoreStore();
+        if (scores.getRunCount() == 0) {
+            migrateLeaderboard(prefs);
+        }
+        leaderboardLoadTime.recordSince(start);
     }
 
-    public void resetToDefaults() {
-        prefs.putFloat(KEY_SOUND_VOLUME, DEFAULT_SOUND_VOLUME);
-        prefs.putFloat(KEY_MUSIC_VOLUME, DEFAULT_MUSIC_VOLUME);
-        prefs.putInteger(KEY_DIFFICULTY, DEFAULT_DIFFICULTY);
-        prefs.putBoolean(KEY_FULLSCREEN, DEFAULT_FULLSCREEN);
-        prefs.putBoolean(KEY_SHOW_FPS, DEFAULT_SHOW_FPS);
-        prefs.putString(KEY_PLAYER_NAME, DEFAULT_PLAYER_NAME);
+    private ScoreStore openScoreStore() {
+        File logFile = com.badlogic.gdx.Gdx.files.local(SCORE_LOG_FILE).file();
+        File indexFile = com.badlogic.gdx.Gdx.files.local(SCORE_INDEX_FILE).file();
+        try {
+            return new ScoreStore(logFile, indexFile, writer, MAX_LEADERBOARD_ENTRIES);
+        } catch (IOException e) {
+            // An unreadable log would otherwise keep the game from starting; begin a new one
+            com.badlogic.gdx.Gdx.app.error("GameSettings", "Could not open score log " + logFile + ", starting a new one", e);
+            logFile.delete();
+            indexFile.delete();
+            try {
+                return new ScoreStore(logFile, indexFile, writer, MAX_LEADERBOARD_ENTRIES);
+            } catch (IOException retry) {
+                throw new IllegalStateException("Could not create score log " + logFile, retry);
+            }
+        }
+    }
+
+    /**
+     * Moves the best scores saved by older versions in Preferences into the score store.
+     */
+    private void migrateLeaderboard(Preferences prefs) {
+        if (!prefs.contains(KEY_LEADERBOARD)) return;
+        long now = System.currentTimeMillis();
+        for (LeaderboardEntry entry : readLegacyLeaderboard(prefs)) {
+            if (entry.name == null) continue;
+            scores.addRun(entry.name, entry.score, parseDifficultyName(entry.difficulty), now);
+        }
+        prefs.remove(KEY_LEADERBOARD);
         prefs.flush();
     }
 
+    private boolean load() {
+        if (!settingsFile.exists()) return false;
+        Properties properties = new Properties();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(settingsFile))) {
+            properties.load(in);
+        } catch (IOException e) {
+            com.badlogic.gdx.Gdx.app.error("GameSettings", "Could not read settings " + settingsFile, e);
+            return false;
+        }
+        soundVolume = clampVolume(parseFloat(properties.getProperty(KEY_SOUND_VOLUME), DEFAULT_SOUND_VOLUME));
+        musicVolume = clampVolume(parseFloat(properties.getProperty(KEY_MUSIC_VOLUME), DEFAULT_MUSIC_VOLUME));
+        difficulty = parseInt(properties.getProperty(KEY_DIFFICULTY), DEFAULT_DIFFICULTY);
+        fullscreen = parseBoolean(properties.getProperty(KEY_FULLSCREEN), DEFAULT_FULLSCREEN);
+        showFps = parseBoolean(properties.getProperty(KEY_SHOW_FPS), DEFAULT_SHOW_FPS);
+        showProfiler = parseBoolean(properties.getProperty(KEY_SHOW_PROFILER), DEFAULT_SHOW_PROFILER);
+        playerName = properties.getProperty(KEY_PLAYER_NAME, DEFAULT_PLAYER_NAME);
+        return true;
+    }
+
+    private void migrateFromPreferences(Preferences prefs) {
+        soundVolume = clampVolume(prefs.getFloat(KEY_SOUND_VOLUME, DEFAULT_SOUND_VOLUME));
+        musicVolume = clampVolume(prefs.getFloat(KEY_MUSIC_VOLUME, DEFAULT_MUSIC_VOLUME));
+        difficulty = prefs.getInteger(KEY_DIFFICULTY, DEFAULT_DIFFICULTY);
+        fullscreen = prefs.getBoolean(KEY_FULLSCREEN, DEFAULT_FULLSCREEN);
+        showFps = prefs.getBoolean(KEY_SHOW_FPS, DEFAULT_SHOW_FPS);
+        showProfiler = prefs.getBoolean(KEY_SHOW_PROFILER, DEFAULT_SHOW_PROFILER);
+        playerName = prefs.getString(KEY_PLAYER_NAME, DEFAULT_PLAYER_NAME);
+        dirty = true;
+    }
+
+    public void resetToDefaults() {
+        soundVolume = DEFAULT_SOUND_VOLUME;
+        musicVolume = DEFAULT_MUSIC_VOLUME;
+        difficulty = DEFAULT_DIFFICULTY;
+        fullscreen = DEFAULT_FULLSCREEN;
+        showFps = DEFAULT_SHOW_FPS;
+        showProfiler = DEFAULT_SHOW_PROFILER;
+        playerName = DEFAULT_PLAYER_NAME;
+        markDirty();
+    }
+
     public float getSoundVolume() {
-        return prefs.getFloat(KEY_SOUND_VOLUME, DEFAULT_SOUND_VOLUME);
+        return soundVolume;
     }
 
     public void setSoundVolume(float volume) {
-        prefs.putFloat(KEY_SOUND_VOLUME, Math.max(0f, Math.min(1f, volume)));
-        prefs.flush();
+        volume = clampVolume(volume);
+        if (volume == soundVolume) return;
+        soundVolume = volume;
+        markDirty();
     }
     
     public float getMusicVolume() {
-        return prefs.getFloat(KEY_MUSIC_VOLUME, DEFAULT_MUSIC_VOLUME);
+        return musicVolume;
     }
     
     public void setMusicVolume(float volume) {
-        prefs.putFloat(KEY_MUSIC_VOLUME, Math.max(0f, Math.min(1f, volume)));
-        prefs.flush();
+        volume = clampVolume(volume);
+        if (volume == musicVolume) return;
+        musicVolume = volume;
+        markDirty();
     }
     
     public Difficulty getDifficulty() {
-        int difficultyIndex = prefs.getInteger(KEY_DIFFICULTY, DEFAULT_DIFFICULTY);
         Difficulty[] difficulties = Difficulty.values();
-        if (difficultyIndex >= 0 && difficultyIndex < difficulties.length) {
-            return difficulties[difficultyIndex];
+        if (difficulty >= 0 && difficulty < difficulties.length) {
+            return difficulties[difficulty];
         }
         return Difficulty.NORMAL;
     }
 
     public void setDifficulty(Difficulty difficulty) {
-        prefs.putInteger(KEY_DIFFICULTY, difficulty.ordinal());
-        prefs.flush();
+        if (difficulty.ordinal() == this.difficulty) return;
+        this.difficulty = difficulty.ordinal();
+        markDirty();
     }
 
     public boolean isFullscreen() {
-        return prefs.getBoolean(KEY_FULLSCREEN, DEFAULT_FULLSCREEN);
+        return fullscreen;
     }
 
     public void setFullscreen(boolean fullscreen) {
-        prefs.putBoolean(KEY_FULLSCREEN, fullscreen);
-        prefs.flush();
+        if (fullscreen == this.fullscreen) return;
+        this.fullscreen = fullscreen;
+        markDirty();
     }
 
     public boolean isShowFps() {
-        return prefs.getBoolean(KEY_SHOW_FPS, DEFAULT_SHOW_FPS);
+        return showFps;
     }
 
     public void setShowFps(boolean showFps) {
-        prefs.putBoolean(KEY_SHOW_FPS, showFps);
-        prefs.flush();
+        if (showFps == this.showFps) return;
+        this.showFps = showFps;
+        markDirty();
     }
 
-    public void save() {
-        prefs.flush();
+    public boolean isShowProfiler() {
+        return showProfiler;
+    }
+
+    public void setShowProfiler(boolean showProfiler) {
+        if (showProfiler == this.showProfiler) return;
+        this.showProfiler = showProfiler;
+        markDirty();
     }
 
     // --- Player Name ---
     public String getPlayerName() {
-        return prefs.getString(KEY_PLAYER_NAME, DEFAULT_PLAYER_NAME);
+        return playerName;
     }
 
     public void setPlayerName(String name) {
         if (name == null || name.trim().isEmpty()) {
             name = DEFAULT_PLAYER_NAME;
         }
-        prefs.putString(KEY_PLAYER_NAME, name.trim());
-        prefs.flush();
+        name = name.trim();
+        if (name.equals(playerName)) return;
+        playerName = name;
+        markDirty();
+    }
+
+    // --- Persistence ---
+
+    /**
+     * Writes pending settings once they have not changed for {@link #SAVE_DELAY_MILLIS}.
+     * Called every frame by {@link RoadGame}.
+     */
+    public void update() {
+        if (dirty && System.nanoTime() - lastChangeNanos >= SAVE_DELAY_MILLIS * 1_000_000L) {
+            save();
+        }
+    }
+
+    /**
+     * Replaces the local file at {@code path} with {@code content} on the background writer, so callers on
+     * the render thread never wait for the disk.
+     */
+    public void writeLocalFile(String path, byte[] content) {
+        writer.submit(com.badlogic.gdx.Gdx.files.local(path).file(), content);
+    }
+
+    /**
+     * Hands pending settings to the background writer now, without waiting for the quiet period.
+     */
+    public void save() {
+        if (!dirty) return;
+        long start = System.nanoTime();
+        Properties properties = new Properties();
+        properties.setProperty(KEY_SOUND_VOLUME, Float.toString(soundVolume));
+        properties.setProperty(KEY_MUSIC_VOLUME, Float.toString(musicVolume));
+        properties.setProperty(KEY_DIFFICULTY, Integer.toString(difficulty));
+        properties.setProperty(KEY_FULLSCREEN, Boolean.toString(fullscreen));
+        properties.setProperty(KEY_SHOW_FPS, Boolean.toString(showFps));
+        properties.setProperty(KEY_SHOW_PROFILER, Boolean.toString(showProfiler));
+        properties.setProperty(KEY_PLAYER_NAME, playerName);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try {
+            properties.store(bytes, "Road game settings");
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream does not throw
+        }
+        writer.submit(settingsFile, bytes.toByteArray());
+        dirty = false;
+        flushCount.increment();
+        flushTime.recordSince(start);
+    }
+
+    private void markDirty() {
+        dirty = true;
+        lastChangeNanos = System.nanoTime();
+        publish();
+    }
+
+    // --- Snapshot and listeners ---
+
+    /**
+     * The current settings. Safe to read from any thread; a new instance is published on every change.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void addListener(Listener listener) {
+        if (!listeners.contains(listener, true)) listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    private void publish() {
+        Snapshot previous = snapshot;
+        Snapshot current = createSnapshot();
+        snapshot = current;
+        // Iterating a snapshot lets listeners add or remove listeners while being notified
+        Listener[] items = listeners.begin();
+        for (int i = 0, n = listeners.size; i < n; i++) {
+            items[i].settingsChanged(previous, current);
+        }
+        listeners.end();
+    }
+
+    private Snapshot createSnapshot() {
+        return new Snapshot(soundVolume, musicVolume, getDifficulty(), fullscreen, showFps, showProfiler, playerName);
+    }
+
+    private static float clampVolume(float volume) {
+        return Math.max(0f, Math.min(1f, volume));
+    }
+
+    private static float parseFloat(String value, float fallback) {
+        try {
+            return value == null ? fallback : Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value == null ? fallback : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static boolean parseBoolean(String value, boolean fallback) {
+        return value == null ? fallback : Boolean.parseBoolean(value);
     }
 
     // --- Leaderboard ---
 
     /**
-     * Represents a single leaderboard entry with player name and score.
+     * Leaderboard entry as saved by older versions, only read when migrating them.
      */
     public static class LeaderboardEntry {
         public String name;
@@ -170,9 +450,31 @@ public class GameSettings {
     }
 
     /**
-     * Get all leaderboard entries, sorted by score descending.
+     * Get the best players' entries of one board, sorted by score descending. {@code difficulty} null
+     * selects the board across all difficulties. Every board is kept up to date as runs are added, so
+     * this is served from memory; the returned array must not be modified.
      */
-    public Array<LeaderboardEntry> getLeaderboard() {
+    public Array<ScoreBoard.Entry> getLeaderboard(Difficulty difficulty, ScoreBoard.Window window) {
+        return scores.getBoard(difficulty, window);
+    }
+
+    /**
+     * The score store holding every run, for rank queries beyond the leaderboard.
+     */
+    public ScoreStore getScores() {
+        return scores;
+    }
+
+    private static Difficulty parseDifficultyName(String name) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.toString().equalsIgnoreCase(name) || difficulty.name().equalsIgnoreCase(name)) {
+                return difficulty;
+            }
+        }
+        return Difficulty.NORMAL;
+    }
+
+    private Array<LeaderboardEntry> readLegacyLeaderboard(Preferences prefs) {
         String json = prefs.getString(KEY_LEADERBOARD, "[]");
         Json jsonParser = new Json();
         try {
@@ -188,63 +490,34 @@ public class GameSettings {
     }
 
     /**
-     * Add a new score to the leaderboard.
-     * Each player name only appears once - only their best score is kept.
+     * Add a new score to the leaderboard, for the difficulty the run was played at.
+     * Every run is logged, but each player name (ignoring case) appears once with their best score.
      */
-    public void addScore(String playerName, int score) {
+    public void addScore(String playerName, int score, Difficulty difficulty) {
         if (playerName == null || playerName.trim().isEmpty()) {
             playerName = DEFAULT_PLAYER_NAME;
         }
         playerName = playerName.trim();
 
-        Array<LeaderboardEntry> entries = getLeaderboard();
-
-        // Check if player already exists in leaderboard
-        LeaderboardEntry existingEntry = null;
-        for (LeaderboardEntry entry : entries) {
-            if (entry.name != null && entry.name.equalsIgnoreCase(playerName)) {
-                existingEntry = entry;
-                break;
-            }
-        }
-
-        if (existingEntry != null) {
-            // Player exists - only update if new score is higher
-            if (score > existingEntry.score) {
-                existingEntry.score = score;
-                existingEntry.difficulty = getDifficulty().toString();
-            }
-        } else {
-            // New player - add entry
-            LeaderboardEntry newEntry = new LeaderboardEntry(
-                playerName,
-                score,
-                getDifficulty().toString()
-            );
-            entries.add(newEntry);
-        }
-
-        // Sort by score descending
-        entries.sort((a, b) -> Integer.compare(b.score, a.score));
-
-        // Keep only top entries
-        while (entries.size > MAX_LEADERBOARD_ENTRIES) {
-            entries.removeIndex(entries.size - 1);
-        }
-
-        // Save to preferences
-        Json jsonParser = new Json();
-        String json = jsonParser.toJson(entries, Array.class, LeaderboardEntry.class);
-        prefs.putString(KEY_LEADERBOARD, json);
-        prefs.flush();
+        long start = System.nanoTime();
+        scores.addRun(playerName, score, difficulty, System.currentTimeMillis());
+        leaderboardSaveTime.recordSince(start);
     }
 
     /**
      * Clear all leaderboard entries.
      */
     public void clearLeaderboard() {
-        prefs.putString(KEY_LEADERBOARD, "[]");
-        prefs.flush();
+        scores.clear();
+    }
+
+    /**
+     * Writes out any pending settings and the score index and stops the background writer.
+     */
+    public void dispose() {
+        save();
+        scores.close();
+        writer.close();
     }
 }
 
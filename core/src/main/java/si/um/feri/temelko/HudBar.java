@@ -0,0 +1,40 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.NinePatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Draws HUD gauges (background, fill and border) with the {@link Batch} that is already
+ * drawing the frame, using a white region tinted by the batch color and a nine-patch border.
+ * This avoids ending the batch and switching to a ShapeRenderer for every bar.
+ */
+public class HudBar {
+    private static final Color BACKGROUND_COLOR = Color.DARK_GRAY;
+    private static final Color BORDER_COLOR = Color.WHITE;
+
+    private final TextureRegion white;
+    private final NinePatch border;
+
+    public HudBar(TextureRegion white, NinePatch border) {
+        this.white = white;
+        this.border = border;
+    }
+
+    /**
+     * Draws a bar filled to {@code percent} (0..1) of its width. Leaves the batch color white.
+     */
+    public void draw(Batch batch, float x, float y, float width, float height, float percent, Color fillColor) {
+        percent = Math.max(0f, Math.min(1f, percent));
+
+        batch.setColor(BACKGROUND_COLOR);
+        batch.draw(white, x, y, width, height);
+
+        batch.setColor(fillColor);
+        batch.draw(white, x, y, width * percent, height);
+
+        batch.setColor(BORDER_COLOR);
+        border.draw(batch, x, y, width, height);
+    }
+}
@@ -0,0 +1,81 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * A single line of HUD text with a fixed prefix and a numeric value, e.g. "Score: 120".
+ * The text is built into a reused buffer without {@code String.format} and its {@link GlyphLayout}
+ * is cached, so it is only laid out again when the displayed value actually changes.
+ * Each instance draws with one pre-scaled font at a time and never changes the font scale itself.
+ */
+public class HudText {
+    private BitmapFont font;
+    private final String prefix;
+    private final StringBuilder text = new StringBuilder(32);
+    private final GlyphLayout layout = new GlyphLayout();
+    private long shownValue;
+    private boolean hasValue;
+
+    public HudText(BitmapFont font, String prefix) {
+        this.font = font;
+        this.prefix = prefix;
+        text.append(prefix);
+        layout.setText(font, text);
+    }
+
+    /**
+     * Draws the shown text with {@code font} from now on, e.g. one rendered for a new screen size.
+     */
+    public void setFont(BitmapFont font) {
+        if (this.font == font) return;
+        this.font = font;
+        layout.setText(font, text);
+    }
+
+    /**
+     * Shows {@code prefix + value}.
+     */
+    public void setValue(int value) {
+        if (hasValue && shownValue == value) return;
+        shownValue = value;
+        hasValue = true;
+        text.setLength(0);
+        text.append(prefix).append(value);
+        layout.setText(font, text);
+    }
+
+    /**
+     * Shows {@code prefix + value} with exactly two decimals, rounded half up like {@code "%.2f"}.
+     */
+    public void setValue(float value) {
+        long hundredths = Math.round(value * 100.0);
+        if (hasValue && shownValue == hundredths) return;
+        shownValue = hundredths;
+        hasValue = true;
+        text.setLength(0);
+        text.append(prefix);
+        if (hundredths < 0) {
+            text.append('-');
+            hundredths = -hundredths;
+        }
+        long fraction = hundredths % 100;
+        text.append(hundredths / 100).append('.');
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+        layout.setText(font, text);
+    }
+
+    public void draw(Batch batch, float x, float y) {
+        font.draw(batch, layout, x, y);
+    }
+
+    public float getWidth() {
+        return layout.width;
+    }
+
+    public float getHeight() {
+        return layout.height;
+    }
+}
@@ -3,8 +3,10 @@ package si.um.feri.temelko;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
@@ -15,11 +17,15 @@ import com.badlogic.gdx.utils.viewport.Viewport;
 
 public class IntroScreen extends ScreenAdapter {
     public static final float INTRO_DURATION_IN_SEC = 3f;   // duration of the (intro) animation
+    private static final float PROGRESS_BAR_WIDTH = 400f;
+    private static final float PROGRESS_BAR_HEIGHT = 12f;
 
     private final RoadGame game;
     private final AssetManager assetManager;
     private Texture carTexture;
     private Texture roadTexture;
+    private Texture whiteTexture;
+    private Image progressFill;
     private Viewport viewport;
     private float duration = 0f;
     private Stage stage;
@@ -37,9 +43,11 @@ public class IntroScreen extends ScreenAdapter {
         // Load textures from AssetManager
         carTexture = assetManager.get("images/car.png", Texture.class);
         roadTexture = assetManager.get("images/background.png", Texture.class);
+        whiteTexture = assetManager.get("images/hud-white.png", Texture.class);
 
         stage.addActor(createRoadBackground());
         stage.addActor(createAnimation());
+        stage.addActor(createProgressBar());
     }
 
     @Override
@@ -52,9 +60,14 @@ public class IntroScreen extends ScreenAdapter {
         ScreenUtils.clear(0.1f, 0.1f, 0.15f, 0f);
         duration += delta;
 
-        // go to the MenuScreen after INTRO_DURATION_IN_SEC seconds
-        if (duration > INTRO_DURATION_IN_SEC) {
-            game.setScreen(new MenuScreen(game));
+        // stream the remaining assets in while the animation plays
+        boolean loaded = game.updateLoading();
+        progressFill.setWidth(PROGRESS_BAR_WIDTH * game.getLoadingProgress());
+
+        // go to the MenuScreen once everything is loaded, but not before INTRO_DURATION_IN_SEC seconds
+        if (loaded && duration > INTRO_DURATION_IN_SEC) {
+            game.showMenu();
+            return;
         }
 
         stage.act(delta);
@@ -89,6 +102,24 @@ public class IntroScreen extends ScreenAdapter {
         return road;
     }
 
+    private Actor createProgressBar() {
+        float x = viewport.getWorldWidth() / 2f - PROGRESS_BAR_WIDTH / 2f;
+        float y = viewport.getWorldHeight() * 0.1f;
+
+        Image track = new Image(whiteTexture);
+        track.setBounds(x, y, PROGRESS_BAR_WIDTH, PROGRESS_BAR_HEIGHT);
+        track.setColor(Color.DARK_GRAY);
+
+        progressFill = new Image(whiteTexture);
+        progressFill.setBounds(x, y, 0f, PROGRESS_BAR_HEIGHT);
+        progressFill.setColor(Color.WHITE);
+
+        Group bar = new Group();
+        bar.addActor(track);
+        bar.addActor(progressFill);
+        return bar;
+    }
+
     private Actor createAnimation() {
         Image car = new Image(carTexture);
         // Scale the car for the intro
@@ -8,13 +8,16 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.ButtonGroup;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
@@ -28,6 +31,26 @@ public class LeaderboardScreen extends ScreenAdapter {
     private Stage stage;
     private Skin skin;
     private Texture background;
+    // Rows are pooled by the list, so a board with any number of players costs the same to show
+    private static final float ROW_HEIGHT = 32f;
+    private static final float LIST_HEIGHT = 352f;
+    private static final Color BRONZE = new Color(0.8f, 0.5f, 0.2f, 1f);
+    // Pixel sizes of the game font; the skin's own font would have to be scaled
+    private static final int TITLE_FONT_SIZE = 90;
+    private static final int TEXT_FONT_SIZE = 16;
+    private static final int BUTTON_FONT_SIZE = 15;
+    private static final int FILTER_FONT_SIZE = 13;
+    private static final int ROW_FONT_SIZE = 15;
+    private static final int DIFFICULTY_FONT_SIZE = 14;
+
+    private Table listArea;
+    private ScrollPane listScrollPane;
+    private VirtualList<LeaderboardRow> list;
+    private Label emptyLabel;
+    private Array<ScoreBoard.Entry> entries;
+    // Board shown; a null difficulty shows every difficulty
+    private GameSettings.Difficulty selectedDifficulty;
+    private ScoreBoard.Window selectedWindow = ScoreBoard.Window.ALL_TIME;
 
     public LeaderboardScreen(RoadGame game) {
         this.game = game;
@@ -37,13 +60,18 @@ public class LeaderboardScreen extends ScreenAdapter {
 
     @Override
     public void show() {
-        viewport = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        stage = new Stage(viewport, game.getBatch());
+        // The stage is built on the first show; later shows only rebind the rows to the latest scores
+        if (stage == null) {
+            viewport = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            stage = new Stage(viewport, game.getBatch());
 
-        skin = assetManager.get("skins/mySkin/star-soldier-ui.json", Skin.class);
-        background = assetManager.get("images/background.png", Texture.class);
+            skin = assetManager.get("skins/mySkin/star-soldier-ui.json", Skin.class);
+            background = assetManager.get("images/background.png", Texture.class);
 
-        stage.addActor(createUi());
+            stage.addActor(createUi());
+        } else {
+            refreshBoard();
+        }
 
         // Start/resume background music
         game.playMusic();
@@ -66,7 +94,7 @@ public class LeaderboardScreen extends ScreenAdapter {
     @Override
     public void hide() {
         Gdx.input.setInputProcessor(null);
-        dispose();
+        // The screen is cached by RoadGame; its stage is only disposed with the game
     }
 
     @Override
@@ -78,33 +106,45 @@ public class LeaderboardScreen extends ScreenAdapter {
 
     private Actor createUi() {
         Table table = new Table();
-        table.defaults().pad(10);
+        table.defaults().pad(5);
         table.setBackground(new TextureRegionDrawable(background));
 
-        // Title - smaller scale to fit on screen
-        Label titleLabel = new Label("Leaderboard", skin, "title");
-        titleLabel.setFontScale(1.2f);
+        // Title - smaller size to fit on screen
+        Label titleLabel = new Label("Leaderboard", game.getLabelStyle(skin, "title", TITLE_FONT_SIZE));
+
+        // Board filters; every board is kept up to date by the score store, so switching only rebinds the rows
+        TextButton.TextButtonStyle filterStyle = game.getTextButtonStyle(skin, "toggle", FILTER_FONT_SIZE);
+        Table difficultyTable = createDifficultyFilter(filterStyle);
+        Table windowTable = createWindowFilter(filterStyle);
 
-        // Leaderboard table
-        Table leaderboardTable = createLeaderboardTable();
+        // Leaderboard list, showing either the rows or a note that the board is empty
+        list = new VirtualList<>(new BoardAdapter(), ROW_HEIGHT);
+        listScrollPane = new ScrollPane(list, skin);
+        listScrollPane.setFadeScrollBars(false);
+        listScrollPane.setScrollingDisabled(true, false);
+        listScrollPane.setOverscroll(false, false);
+
+        emptyLabel = new Label("No scores yet!", game.getLabelStyle(skin, "default", TEXT_FONT_SIZE));
+        emptyLabel.setColor(Color.LIGHT_GRAY);
+
+        listArea = new Table();
+        refreshBoard();
 
         // Buttons
-        TextButton backButton = new TextButton("Back to Menu", skin);
+        TextButton backButton = new TextButton("Back to Menu", game.getTextButtonStyle(skin, "default", TEXT_FONT_SIZE));
         backButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.setScreen(new MenuScreen(game));
+                game.showMenu();
             }
         });
 
-        TextButton clearButton = new TextButton("Clear Scores", skin);
-        clearButton.getLabel().setFontScale(0.9f);
+        TextButton clearButton = new TextButton("Clear Scores", game.getTextButtonStyle(skin, "default", BUTTON_FONT_SIZE));
         clearButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 settings.clearLeaderboard();
-                // Refresh the screen
-                game.setScreen(new LeaderboardScreen(game));
+                refreshBoard();
             }
         });
 
@@ -117,120 +157,196 @@ public class LeaderboardScreen extends ScreenAdapter {
         buttonTable.add(clearButton).fillX().padBottom(8).row();
         buttonTable.add(backButton).fillX();
 
-        // Create scrollable content - centered layout
-        Table scrollContent = new Table();
-        scrollContent.defaults().pad(5);
-        scrollContent.add(titleLabel).expandX().center().padBottom(15).row();
-        scrollContent.add(leaderboardTable).expandX().center().padBottom(15).row();
-        scrollContent.add(buttonTable).expandX().center().padTop(10);
-
-        ScrollPane scrollPane = new ScrollPane(scrollContent, skin);
-        scrollPane.setFadeScrollBars(false);
-        scrollPane.setScrollingDisabled(true, false);
-        scrollPane.setOverscroll(false, false);
-
-        table.add(scrollPane).expand().fill().center();
+        table.add(titleLabel).expandX().center().padBottom(10).row();
+        table.add(difficultyTable).expandX().center().row();
+        table.add(windowTable).expandX().center().padBottom(8).row();
+        table.add(createHeader()).expandX().center().row();
+        table.add(listArea).width(LeaderboardRow.WIDTH + 30).height(LIST_HEIGHT).center().padBottom(10).row();
+        table.add(buttonTable).expandX().center();
         table.setFillParent(true);
 
         return table;
     }
 
-    private Table createLeaderboardTable() {
+    private Table createDifficultyFilter(TextButton.TextButtonStyle style) {
         Table table = new Table();
-        table.defaults().pad(3).padLeft(10).padRight(10);
-
-        // Header row
-        Label rankHeader = new Label("Rank", skin);
-        rankHeader.setFontScale(1f);
-        rankHeader.setColor(Color.GOLD);
-
-        Label nameHeader = new Label("Player", skin);
-        nameHeader.setFontScale(1f);
-        nameHeader.setColor(Color.GOLD);
-
-        Label scoreHeader = new Label("Score", skin);
-        scoreHeader.setFontScale(1f);
-        scoreHeader.setColor(Color.GOLD);
-
-        Label diffHeader = new Label("Difficulty", skin);
-        diffHeader.setFontScale(1f);
-        diffHeader.setColor(Color.GOLD);
-
-        table.add(rankHeader).width(60).center();
-        table.add(nameHeader).width(150).center();
-        table.add(scoreHeader).width(80).center();
-        table.add(diffHeader).width(100).center();
-        table.row();
-
-        // Separator
-        table.add().height(8).colspan(4).row();
-
-        // Get leaderboard entries
-        Array<GameSettings.LeaderboardEntry> entries = settings.getLeaderboard();
-
-        if (entries.size == 0) {
-            Label emptyLabel = new Label("No scores yet!", skin);
-            emptyLabel.setFontScale(1f);
-            emptyLabel.setColor(Color.LIGHT_GRAY);
-            table.add(emptyLabel).colspan(4).center().padTop(20).padBottom(20);
-        } else {
-            int rank = 1;
-            for (GameSettings.LeaderboardEntry entry : entries) {
-                // Determine color based on rank
-                Color rowColor;
-                if (rank == 1) {
-                    rowColor = Color.GOLD;
-                } else if (rank == 2) {
-                    rowColor = Color.LIGHT_GRAY;
-                } else if (rank == 3) {
-                    rowColor = new Color(0.8f, 0.5f, 0.2f, 1f); // Bronze
-                } else {
-                    rowColor = Color.WHITE;
+        table.defaults().width(140).height(44).pad(3);
+        ButtonGroup<TextButton> group = new ButtonGroup<>();
+        table.add(createFilterButton("All", style, group, () -> selectedDifficulty = null, selectedDifficulty == null));
+        for (GameSettings.Difficulty difficulty : GameSettings.Difficulty.values()) {
+            table.add(createFilterButton(difficulty.toString(), style, group,
+                () -> selectedDifficulty = difficulty, selectedDifficulty == difficulty));
+        }
+        return table;
+    }
+
+    private Table createWindowFilter(TextButton.TextButtonStyle style) {
+        Table table = new Table();
+        table.defaults().width(188).height(44).pad(3);
+        ButtonGroup<TextButton> group = new ButtonGroup<>();
+        for (ScoreBoard.Window window : ScoreBoard.Window.values()) {
+            table.add(createFilterButton(window.toString(), style, group,
+                () -> selectedWindow = window, selectedWindow == window));
+        }
+        return table;
+    }
+
+    private TextButton createFilterButton(String text, TextButton.TextButtonStyle style, ButtonGroup<TextButton> group,
+                                          Runnable select, boolean checked) {
+        TextButton button = new TextButton(text, style);
+        button.setChecked(checked);
+        group.add(button);
+        button.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                // The group also fires for the button that was unchecked
+                if (button.isChecked()) {
+                    select.run();
+                    refreshBoard();
                 }
+            }
+        });
+        return button;
+    }
+
+    private Table createHeader() {
+        Label.LabelStyle style = game.getLabelStyle(skin, "default", TEXT_FONT_SIZE);
+        Table table = new Table();
+        table.defaults().pad(3);
+        table.add(createHeaderLabel("Rank", style)).width(LeaderboardRow.RANK_WIDTH).center();
+        table.add(createHeaderLabel("Player", style)).width(LeaderboardRow.NAME_WIDTH).center();
+        table.add(createHeaderLabel("Score", style)).width(LeaderboardRow.SCORE_WIDTH).center();
+        table.add(createHeaderLabel("Difficulty", style)).width(LeaderboardRow.DIFFICULTY_WIDTH).center();
+        // Keeps the columns above the rows, which leave room for the scroll bar
+        table.add().width(30);
+        return table;
+    }
+
+    private Label createHeaderLabel(String text, Label.LabelStyle style) {
+        Label label = new Label(text, style);
+        label.setColor(Color.GOLD);
+        return label;
+    }
 
-                Label rankLabel = new Label(getRankDisplay(rank), skin);
-                rankLabel.setFontScale(0.9f);
-                rankLabel.setColor(rowColor);
+    /**
+     * Shows the selected board from the top. The overall all-time board lists every player, ranked by
+     * the score store; the others list the players kept by their {@link ScoreBoard}.
+     */
+    private void refreshBoard() {
+        entries = showsFullRanking() ? null : settings.getLeaderboard(selectedDifficulty, selectedWindow);
+        list.refresh();
+        listArea.clearChildren();
+        if (list.getCount() == 0) {
+            listArea.add(emptyLabel).center();
+        } else {
+            listArea.add(listScrollPane).expand().fill();
+            listScrollPane.setScrollY(0);
+            listScrollPane.updateVisualScroll();
+        }
+    }
 
-                Label nameLabel = new Label(truncateName(entry.name), skin);
-                nameLabel.setFontScale(0.9f);
-                nameLabel.setColor(rowColor);
+    private boolean showsFullRanking() {
+        return selectedDifficulty == null && selectedWindow == ScoreBoard.Window.ALL_TIME;
+    }
 
-                Label scoreLabel = new Label(String.valueOf(entry.score), skin);
-                scoreLabel.setFontScale(0.9f);
-                scoreLabel.setColor(rowColor);
+    private final class BoardAdapter implements VirtualList.Adapter<LeaderboardRow> {
+        private final Label.LabelStyle textStyle = game.getLabelStyle(skin, "default", ROW_FONT_SIZE);
+        private final Label.LabelStyle difficultyStyle = game.getLabelStyle(skin, "default", DIFFICULTY_FONT_SIZE);
 
-                Label diffLabel = new Label(entry.difficulty != null ? entry.difficulty : "Normal", skin);
-                diffLabel.setFontScale(0.85f);
-                diffLabel.setColor(rowColor);
+        @Override
+        public int getCount() {
+            return entries != null ? entries.size : settings.getScores().getPlayerCount();
+        }
 
-                table.add(rankLabel).width(60).center();
-                table.add(nameLabel).width(150).center();
-                table.add(scoreLabel).width(80).center();
-                table.add(diffLabel).width(100).center();
-                table.row();
+        @Override
+        public LeaderboardRow createRow() {
+            return new LeaderboardRow(textStyle, difficultyStyle);
+        }
 
-                rank++;
+        @Override
+        public void bindRow(LeaderboardRow row, int index) {
+            if (entries != null) {
+                ScoreBoard.Entry entry = entries.get(index);
+                row.bind(index + 1, entry.getName(), entry.getScore(), entry.getDifficulty());
+            } else {
+                ScoreStore.PlayerRecord player = settings.getScores().getPlayerAtRank(index + 1);
+                row.bind(index + 1, player.getName(), player.getBestScore(), player.getBestDifficulty());
             }
         }
-
-        return table;
     }
 
-    private String getRankDisplay(int rank) {
-        return switch (rank) {
-            case 1 -> "1st";
-            case 2 -> "2nd";
-            case 3 -> "3rd";
-            default -> rank + "th";
-        };
-    }
+    /**
+     * One leaderboard row; its labels are reused for whichever rank it is bound to.
+     */
+    private static final class LeaderboardRow extends Table {
+        static final float RANK_WIDTH = 70;
+        static final float NAME_WIDTH = 170;
+        static final float SCORE_WIDTH = 90;
+        static final float DIFFICULTY_WIDTH = 100;
+        static final float WIDTH = RANK_WIDTH + NAME_WIDTH + SCORE_WIDTH + DIFFICULTY_WIDTH + 24;
+
+        private final Label rankLabel, nameLabel, scoreLabel, difficultyLabel;
+        private final StringBuilder text = new StringBuilder();
+
+        LeaderboardRow(Label.LabelStyle textStyle, Label.LabelStyle difficultyStyle) {
+            defaults().pad(3);
+            rankLabel = createLabel(textStyle, RANK_WIDTH);
+            nameLabel = createLabel(textStyle, NAME_WIDTH);
+            scoreLabel = createLabel(textStyle, SCORE_WIDTH);
+            difficultyLabel = createLabel(difficultyStyle, DIFFICULTY_WIDTH);
+        }
+
+        private Label createLabel(Label.LabelStyle style, float width) {
+            Label label = new Label("", style);
+            label.setAlignment(Align.center);
+            add(label).width(width).center();
+            return label;
+        }
+
+        void bind(int rank, String name, int score, GameSettings.Difficulty difficulty) {
+            // Determine color based on rank
+            Color rowColor;
+            if (rank == 1) {
+                rowColor = Color.GOLD;
+            } else if (rank == 2) {
+                rowColor = Color.LIGHT_GRAY;
+            } else if (rank == 3) {
+                rowColor = BRONZE;
+            } else {
+                rowColor = Color.WHITE;
+            }
 
-    private String truncateName(String name) {
-        if (name == null) return "Unknown";
-        if (name.length() > 15) {
-            return name.substring(0, 12) + "...";
+            text.setLength(0);
+            text.append(rank).append(getRankSuffix(rank));
+            rankLabel.setText(text);
+            nameLabel.setText(truncateName(name));
+            text.setLength(0);
+            text.append(score);
+            scoreLabel.setText(text);
+            difficultyLabel.setText(difficulty.toString());
+
+            rankLabel.setColor(rowColor);
+            nameLabel.setColor(rowColor);
+            scoreLabel.setColor(rowColor);
+            difficultyLabel.setColor(rowColor);
+        }
+
+        private static String getRankSuffix(int rank) {
+            if (rank % 100 >= 11 && rank % 100 <= 13) return "th";
+            return switch (rank % 10) {
+                case 1 -> "st";
+                case 2 -> "nd";
+                case 3 -> "rd";
+                default -> "th";
+            };
+        }
+
+        private static String truncateName(String name) {
+            if (name == null) return "Unknown";
+            if (name.length() > 15) {
+                return name.substring(0, 12) + "...";
+            }
+            return name;
         }
-        return name;
     }
 }
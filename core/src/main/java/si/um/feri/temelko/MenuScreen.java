@@ -17,12 +17,18 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
 public class MenuScreen extends ScreenAdapter {
+    // Time the menu has to be shown before the game screen is prepared in the background
+    private static final float PREWARM_DELAY = 0.25f;
+    // Pixel size of the game font on the buttons
+    private static final int BUTTON_FONT_SIZE = 16;
+
     private final RoadGame game;
     private final AssetManager assetManager;
     private Viewport viewport;
     private Stage stage;
     private Skin skin;
     private Texture background;
+    private float idleTime;
 
     public MenuScreen(RoadGame game) {
         this.game = game;
@@ -31,14 +37,18 @@ public class MenuScreen extends ScreenAdapter {
 
     @Override
     public void show() {
-        viewport = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        stage = new Stage(viewport, game.getBatch());
-        
-        // Load skin from AssetManager
-        skin = assetManager.get("skins/mySkin/star-soldier-ui.json", Skin.class);
-        background = assetManager.get("images/background.png", Texture.class);
+        // The stage is built on the first show and reused afterwards
+        if (stage == null) {
+            viewport = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            stage = new Stage(viewport, game.getBatch());
+
+            // Load skin from AssetManager
+            skin = assetManager.get("skins/mySkin/star-soldier-ui.json", Skin.class);
+            background = assetManager.get("images/background.png", Texture.class);
 
-        stage.addActor(createUi());
+            stage.addActor(createUi());
+        }
+        idleTime = 0f;
 
         // Start background music
         game.playMusic();
@@ -56,13 +66,19 @@ public class MenuScreen extends ScreenAdapter {
         ScreenUtils.clear(0f, 0f, 0f, 0f);
         stage.act(delta);
         stage.draw();
+
+        // Prepare the game screen once the menu is on screen, so Play responds instantly
+        if (idleTime < PREWARM_DELAY) {
+            idleTime += delta;
+            if (idleTime >= PREWARM_DELAY) game.prewarmGameScreen();
+        }
     }
 
     @Override
     public void hide() {
         // Reset input processor to prevent dangling references
         Gdx.input.setInputProcessor(null);
-        dispose();
+        // The screen is cached by RoadGame; its stage is only disposed with the game
     }
 
     @Override
@@ -78,32 +94,33 @@ public class MenuScreen extends ScreenAdapter {
         Table table = new Table();
         table.defaults().pad(20);
         table.setBackground(new TextureRegionDrawable(background));
+        TextButton.TextButtonStyle buttonStyle = game.getTextButtonStyle(skin, "default", BUTTON_FONT_SIZE);
 
-        TextButton playButton = new TextButton("Play", skin);
+        TextButton playButton = new TextButton("Play", buttonStyle);
         playButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.setScreen(new GameScreen(game));
+                game.showGame();
             }
         });
 
-        TextButton settingsButton = new TextButton("Settings", skin);
+        TextButton settingsButton = new TextButton("Settings", buttonStyle);
         settingsButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.setScreen(new SettingsScreen(game));
+                game.showSettings();
             }
         });
 
-        TextButton leaderboardButton = new TextButton("Leaderboard", skin);
+        TextButton leaderboardButton = new TextButton("Leaderboard", buttonStyle);
         leaderboardButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.setScreen(new LeaderboardScreen(game));
+                game.showLeaderboard();
             }
         });
 
-        TextButton quitButton = new TextButton("Quit", skin);
+        TextButton quitButton = new TextButton("Quit", buttonStyle);
         quitButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
@@ -0,0 +1,233 @@
+package si.um.feri.temelko;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Named runtime metrics: counters, gauges and fixed-bucket histograms. Metrics are registered once
+ * (looking one up again by name returns the same instance) and updating them afterwards is lock-free
+ * and does not allocate, so they can be fed from the render loop. Exporters such as the desktop
+ * launcher's JMX bean and CSV writer read them from other threads.
+ * Names are dotted and lower case, e.g. {@code frame.time}; times are recorded in milliseconds.
+ */
+public class MetricsRegistry {
+    /** Bucket upper bounds in milliseconds for frame and task times, around the 60 and 30 FPS budgets. */
+    public static final double[] TIME_BUCKETS_MILLIS = {0.25, 0.5, 1, 2, 4, 8, 12, 16.7, 20, 25, 33.3, 50, 100, 250, 1000};
+
+    private final Map<String, Metric> byName = new ConcurrentHashMap<>();
+    private final List<Counter> counters = new CopyOnWriteArrayList<>();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+    private final List<Histogram> histograms = new CopyOnWriteArrayList<>();
+
+    public synchronized Counter counter(String name) {
+        Metric metric = byName.get(name);
+        if (metric == null) {
+            Counter counter = new Counter(name);
+            byName.put(name, counter);
+            counters.add(counter);
+            return counter;
+        }
+        return cast(metric, Counter.class);
+    }
+
+    public synchronized Gauge gauge(String name) {
+        Metric metric = byName.get(name);
+        if (metric == null) {
+            Gauge gauge = new Gauge(name);
+            byName.put(name, gauge);
+            gauges.add(gauge);
+            return gauge;
+        }
+        return cast(metric, Gauge.class);
+    }
+
+    /**
+     * Histogram of times in milliseconds, bucketed by {@link #TIME_BUCKETS_MILLIS}.
+     */
+    public Histogram timer(String name) {
+        return histogram(name, TIME_BUCKETS_MILLIS);
+    }
+
+    /**
+     * Histogram with the given ascending bucket upper bounds; values above the last bound go to an
+     * overflow bucket.
+     */
+    public synchronized Histogram histogram(String name, double[] bucketBounds) {
+        Metric metric = byName.get(name);
+        if (metric == null) {
+            Histogram histogram = new Histogram(name, bucketBounds);
+            byName.put(name, histogram);
+            histograms.add(histogram);
+            return histogram;
+        }
+        return cast(metric, Histogram.class);
+    }
+
+    public List<Counter> getCounters() {
+        return counters;
+    }
+
+    public List<Gauge> getGauges() {
+        return gauges;
+    }
+
+    public List<Histogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Total number of registered metrics; exporters use it to notice newly registered ones.
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    private static <T extends Metric> T cast(Metric metric, Class<T> type) {
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + metric.getName() + " is not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    public abstract static class Metric {
+        private final String name;
+
+        Metric(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class Counter extends Metric {
+        private final AtomicLong value = new AtomicLong();
+
+        Counter(String name) {
+            super(name);
+        }
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public void add(long amount) {
+            value.addAndGet(amount);
+        }
+
+        public long get() {
+            return value.get();
+        }
+    }
+
+    public static class Gauge extends Metric {
+        private volatile double value;
+
+        Gauge(String name) {
+            super(name);
+        }
+
+        public void set(double value) {
+            this.value = value;
+        }
+
+        public double get() {
+            return value;
+        }
+    }
+
+    public static class Histogram extends Metric {
+        private final double[] bounds;
+        private final AtomicLongArray counts;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sumBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+        private final AtomicLong maxBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+        Histogram(String name, double[] bounds) {
+            super(name);
+            this.bounds = bounds.clone();
+            counts = new AtomicLongArray(bounds.length + 1);
+        }
+
+        public void record(double value) {
+            int bucket = 0;
+            while (bucket < bounds.length && value > bounds[bucket]) bucket++;
+            counts.incrementAndGet(bucket);
+            count.incrementAndGet();
+            long bits;
+            do {
+                bits = sumBits.get();
+            } while (!sumBits.compareAndSet(bits, Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + value)));
+            do {
+                bits = maxBits.get();
+            } while (value > Double.longBitsToDouble(bits) && !maxBits.compareAndSet(bits, Double.doubleToRawLongBits(value)));
+        }
+
+        /**
+         * Records the time elapsed since {@code startNanos} (a {@link System#nanoTime()} value) in milliseconds.
+         */
+        public void recordSince(long startNanos) {
+            record((System.nanoTime() - startNanos) / 1_000_000.0);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public double getSum() {
+            return Double.longBitsToDouble(sumBits.get());
+        }
+
+        public double getMean() {
+            long n = count.get();
+            return n == 0 ? 0.0 : getSum() / n;
+        }
+
+        public double getMax() {
+            return Double.longBitsToDouble(maxBits.get());
+        }
+
+        public int getBucketCount() {
+            return bounds.length + 1;
+        }
+
+        /**
+         * Copies the per-bucket counts into {@code out}, which must hold {@link #getBucketCount()} values.
+         */
+        public void copyCounts(long[] out) {
+            for (int i = 0; i < out.length; i++) out[i] = counts.get(i);
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile (0..100) of everything recorded so far.
+         * Values in the overflow bucket report the maximum.
+         */
+        public double getPercentile(double percentile) {
+            long[] snapshot = new long[getBucketCount()];
+            copyCounts(snapshot);
+            return percentile(snapshot, percentile);
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile of {@code bucketCounts}, e.g. the
+         * difference between two {@link #copyCounts} snapshots.
+         */
+        public double percentile(long[] bucketCounts, double percentile) {
+            long total = 0;
+            for (long c : bucketCounts) total += c;
+            if (total == 0) return 0.0;
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) return bounds[i];
+            }
+            return getMax();
+        }
+    }
+}
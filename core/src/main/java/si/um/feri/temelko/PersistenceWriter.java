@@ -0,0 +1,117 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.Gdx;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes files on one background thread so the render thread never waits for the disk.
+ * {@link #submit} only hands over an encoded snapshot; a newer snapshot for the same file replaces one
+ * that has not been written yet, so a burst of saves costs a single write. Each file is written to a
+ * temporary sibling and renamed over the target, so a crash mid-write never leaves a truncated file.
+ */
+public class PersistenceWriter {
+    private final Map<File, byte[]> pending = new LinkedHashMap<>(); // guarded by this
+    private final MetricsRegistry.Histogram writeTime;
+    private final MetricsRegistry.Counter writes;
+    private final Thread thread;
+    private boolean writing;
+    private boolean closed;
+
+    public PersistenceWriter(MetricsRegistry metrics) {
+        writeTime = metrics.timer("persistence.write.time");
+        writes = metrics.counter("persistence.writes");
+        thread = new Thread(this::run, "persistence-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues {@code content} to become the new content of {@code file}. Never blocks on I/O.
+     */
+    public synchronized void submit(File file, byte[] content) {
+        if (closed) throw new IllegalStateException("Writer is closed");
+        pending.put(file, content);
+        notifyAll();
+    }
+
+    /**
+     * Blocks until everything submitted so far has been written.
+     */
+    public synchronized void flush() {
+        boolean interrupted = false;
+        while (!pending.isEmpty() || writing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Writes everything still pending and stops the thread.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        flush();
+    }
+
+    private void run() {
+        while (true) {
+            File file;
+            byte[] content;
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Keep running until closed; pending data must not be lost
+                    }
+                }
+                if (pending.isEmpty()) return;
+                Iterator<Map.Entry<File, byte[]>> iterator = pending.entrySet().iterator();
+                Map.Entry<File, byte[]> next = iterator.next();
+                iterator.remove();
+                file = next.getKey();
+                content = next.getValue();
+                writing = true;
+            }
+            long start = System.nanoTime();
+            try {
+                write(file, content);
+                writes.increment();
+            } catch (IOException | RuntimeException e) {
+                Gdx.app.error("PersistenceWriter", "Could not write " + file, e);
+            }
+            writeTime.recordSince(start);
+            synchronized (this) {
+                writing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    private static void write(File file, byte[] content) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) Files.createDirectories(parent.toPath());
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), content);
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Draws the {@link FrameProfiler} data inside the gameplay batch: a rolling frame-time graph with
+ * 60 and 30 FPS reference lines and GC frames marked, per-phase times, frame-time percentiles,
+ * entity counts and the batch statistics of the previous frame. Uses {@link HudText} lines, so
+ * nothing is formatted or laid out unless a shown value changes.
+ */
+public class ProfilerOverlay {
+    private static final float WIDTH = 300f;
+    private static final float GRAPH_HEIGHT = 80f;
+    private static final float GRAPH_MAX_MILLIS = 50f;
+    private static final float LINE_HEIGHT = 20f;
+    private static final float PADDING = 8f;
+    private static final Color PANEL_COLOR = new Color(0f, 0f, 0f, 0.6f);
+    private static final Color FRAME_COLOR = new Color(0.3f, 0.9f, 0.3f, 1f);
+    private static final Color SLOW_FRAME_COLOR = new Color(1f, 0.3f, 0.2f, 1f);
+    private static final Color GC_COLOR = Color.MAGENTA;
+    private static final Color REFERENCE_COLOR = new Color(1f, 1f, 1f, 0.35f);
+    private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+
+    private final FrameProfiler profiler;
+    private final TextureRegion white;
+    // Layout sizes above, times the scale the overlay is drawn at
+    private float width, graphHeight, lineHeight, padding;
+    private final HudText fpsText;
+    private final HudText[] phaseTexts = new HudText[PHASES.length];
+    private final HudText p50Text, p95Text, p99Text;
+    private final HudText obstaclesText, fuelsText, powerUpsText, bulletsText;
+    private final HudText renderCallsText, maxSpritesText, gcText;
+    private final HudText[] lines;
+
+    /**
+     * {@code scale} multiplies the overlay's layout sizes; {@code font} should be rendered at about
+     * that scale too.
+     */
+    public ProfilerOverlay(FrameProfiler profiler, TextureRegion white, BitmapFont font, float scale) {
+        this.profiler = profiler;
+        this.white = white;
+        fpsText = new HudText(font, "FPS ");
+        for (FrameProfiler.Phase phase : PHASES) {
+            phaseTexts[phase.ordinal()] = new HudText(font, phase.getLabel() + " ms ");
+        }
+        p50Text = new HudText(font, "frame p50 ms ");
+        p95Text = new HudText(font, "frame p95 ms ");
+        p99Text = new HudText(font, "frame p99 ms ");
+        obstaclesText = new HudText(font, "obstacles ");
+        fuelsText = new HudText(font, "fuels ");
+        powerUpsText = new HudText(font, "power-ups ");
+        bulletsText = new HudText(font, "bullets ");
+        renderCallsText = new HudText(font, "render calls ");
+        maxSpritesText = new HudText(font, "max sprites/batch ");
+        gcText = new HudText(font, "GC events ");
+
+        lines = new HudText[4 + phaseTexts.length + 7];
+        int line = 0;
+        lines[line++] = fpsText;
+        lines[line++] = p50Text;
+        lines[line++] = p95Text;
+        lines[line++] = p99Text;
+        for (HudText phaseText : phaseTexts) lines[line++] = phaseText;
+        lines[line++] = obstaclesText;
+        lines[line++] = fuelsText;
+        lines[line++] = powerUpsText;
+        lines[line++] = bulletsText;
+        lines[line++] = renderCallsText;
+        lines[line++] = maxSpritesText;
+        lines[line] = gcText;
+        setScale(font, scale);
+    }
+
+    /**
+     * Draws the overlay at {@code scale} with {@code font} from now on, e.g. after the screen size changed.
+     */
+    public void setScale(BitmapFont font, float scale) {
+        width = WIDTH * scale;
+        graphHeight = GRAPH_HEIGHT * scale;
+        lineHeight = LINE_HEIGHT * scale;
+        padding = PADDING * scale;
+        for (HudText line : lines) line.setFont(font);
+    }
+
+    /**
+     * Draws the overlay with its top-right corner at ({@code right}, {@code top}). {@code batch} must be
+     * drawing. The batch statistics are the previous frame's totals over all its batches, since the
+     * current frame's are only known once it ends.
+     */
+    public void draw(SpriteBatch batch, RoadSimulation simulation, int renderCalls, int maxSpritesInBatch,
+                     float right, float top) {
+        fpsText.setValue(Gdx.graphics.getFramesPerSecond());
+        for (FrameProfiler.Phase phase : PHASES) {
+            phaseTexts[phase.ordinal()].setValue(profiler.getPhaseMillis(phase));
+        }
+        p50Text.setValue(profiler.getP50());
+        p95Text.setValue(profiler.getP95());
+        p99Text.setValue(profiler.getP99());
+        obstaclesText.setValue(simulation.getObstacles().size());
+        fuelsText.setValue(simulation.getFuels().size());
+        powerUpsText.setValue(simulation.getPowerUps().size());
+        bulletsText.setValue(simulation.getBullets().size());
+        renderCallsText.setValue(renderCalls);
+        maxSpritesText.setValue(maxSpritesInBatch);
+        gcText.setValue(profiler.getGcEvents());
+
+        float height = padding * 3 + graphHeight + lines.length * lineHeight;
+        float left = right - width;
+        float bottom = top - height;
+
+        batch.setColor(PANEL_COLOR);
+        batch.draw(white, left, bottom, width, height);
+
+        float graphLeft = left + padding;
+        float graphBottom = top - padding - graphHeight;
+        float graphWidth = width - padding * 2;
+        drawGraph(batch, graphLeft, graphBottom, graphWidth);
+        batch.setColor(Color.WHITE);
+
+        float y = graphBottom - padding;
+        for (HudText line : lines) {
+            line.draw(batch, graphLeft, y);
+            y -= lineHeight;
+        }
+    }
+
+    private void drawGraph(Batch batch, float x, float y, float width) {
+        float barWidth = width / FrameProfiler.WINDOW;
+        int frames = profiler.getFrameCount();
+        for (int age = 0; age < frames; age++) {
+            float millis = profiler.getFrameMillis(age);
+            float barHeight = Math.min(graphHeight, millis / GRAPH_MAX_MILLIS * graphHeight);
+            float barX = x + width - (age + 1) * barWidth;
+            if (profiler.hadGc(age)) {
+                batch.setColor(GC_COLOR);
+                batch.draw(white, barX, y, barWidth, graphHeight);
+            }
+            batch.setColor(millis > 1000f / 60f + 1f ? SLOW_FRAME_COLOR : FRAME_COLOR);
+            batch.draw(white, barX, y, barWidth, barHeight);
+        }
+
+        // 60 FPS and 30 FPS reference lines
+        batch.setColor(REFERENCE_COLOR);
+        batch.draw(white, x, y + (1000f / 60f) / GRAPH_MAX_MILLIS * graphHeight, width, 1f);
+        batch.draw(white, x, y + (1000f / 30f) / GRAPH_MAX_MILLIS * graphHeight, width, 1f);
+    }
+}
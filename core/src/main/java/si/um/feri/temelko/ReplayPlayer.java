@@ -0,0 +1,146 @@
+package si.um.feri.temelko;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Plays back a replay written by {@link ReplayRecorder}. {@link #start} configures and resets the
+ * simulation exactly as it was when recording began, and each {@link #step} feeds the recorded input
+ * for one tick, so the run is reproduced bit for bit.
+ */
+public class ReplayPlayer {
+    private final long seed;
+    private final GameSettings.Difficulty difficulty;
+    private final float tick;
+    private final float worldWidth, worldHeight;
+    private final float carWidth, carHeight;
+    private final float obstacleWidth, obstacleHeight;
+    private final float fuelWidth, fuelHeight;
+    private final float powerUpWidth, powerUpHeight;
+    private final float bulletWidth, bulletHeight;
+
+    private final byte[] data;
+    private final int inputsStart;
+    private int position;
+    private int mask;
+    private int remainingInRun;
+    private int tickIndex;
+    private boolean finished;
+    private int expectedScore;
+
+    public ReplayPlayer(byte[] data) throws IOException {
+        this.data = data;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != ReplayRecorder.MAGIC) throw new IOException("Not a replay file");
+        int version = in.readUnsignedByte();
+        if (version != ReplayRecorder.VERSION) throw new IOException("Unsupported replay version " + version);
+        seed = in.readLong();
+        int difficultyIndex = in.readUnsignedByte();
+        GameSettings.Difficulty[] difficulties = GameSettings.Difficulty.values();
+        if (difficultyIndex >= difficulties.length) throw new IOException("Unknown difficulty " + difficultyIndex);
+        difficulty = difficulties[difficultyIndex];
+        tick = in.readFloat();
+        worldWidth = in.readFloat();
+        worldHeight = in.readFloat();
+        carWidth = in.readFloat();
+        carHeight = in.readFloat();
+        obstacleWidth = in.readFloat();
+        obstacleHeight = in.readFloat();
+        fuelWidth = in.readFloat();
+        fuelHeight = in.readFloat();
+        powerUpWidth = in.readFloat();
+        powerUpHeight = in.readFloat();
+        bulletWidth = in.readFloat();
+        bulletHeight = in.readFloat();
+        inputsStart = data.length - in.available();
+        rewind();
+    }
+
+    /**
+     * Applies the recorded configuration to {@code simulation} and resets it with the recorded seed.
+     */
+    public void start(RoadSimulation simulation) {
+        simulation.setWorldSize(worldWidth, worldHeight);
+        simulation.setCarSize(carWidth, carHeight);
+        simulation.setObstacleSize(obstacleWidth, obstacleHeight);
+        simulation.setFuelSize(fuelWidth, fuelHeight);
+        simulation.setPowerUpSize(powerUpWidth, powerUpHeight);
+        simulation.setBulletSize(bulletWidth, bulletHeight);
+        simulation.reset(difficulty, seed);
+        rewind();
+    }
+
+    /**
+     * Advances {@code simulation} by one recorded tick. Returns false once the recorded inputs run out.
+     */
+    public boolean step(RoadSimulation simulation) {
+        if (remainingInRun == 0 && !nextRun()) return false;
+        simulation.getInput().setMask(mask);
+        simulation.step(tick);
+        remainingInRun--;
+        tickIndex++;
+        return true;
+    }
+
+    public boolean isFinished() {
+        return finished && remainingInRun == 0;
+    }
+
+    /**
+     * Score the recorded run ended with; only known once every tick has been played.
+     */
+    public int getExpectedScore() {
+        return expectedScore;
+    }
+
+    public int getTickIndex() {
+        return tickIndex;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameSettings.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public float getTick() {
+        return tick;
+    }
+
+    private void rewind() {
+        position = inputsStart;
+        remainingInRun = 0;
+        tickIndex = 0;
+        finished = false;
+    }
+
+    private boolean nextRun() {
+        if (finished) return false;
+        int next = readByte();
+        if (next == ReplayRecorder.END_OF_INPUTS) {
+            expectedScore = readVarInt();
+            finished = true;
+            return false;
+        }
+        mask = next;
+        remainingInRun = readVarInt();
+        return remainingInRun > 0 || nextRun();
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    private int readByte() {
+        if (position >= data.length) throw new IllegalStateException("Truncated replay");
+        return data[position++] & 0xFF;
+    }
+}
@@ -0,0 +1,137 @@
+package si.um.feri.temelko;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records a run of a {@link RoadSimulation} as a compact binary replay.
+ * <p>
+ * The header stores everything the simulation's evolution depends on (seed, difficulty, tick length,
+ * world and entity sizes). The body stores the per-tick input bitmask delta-encoded as runs: one byte
+ * for each mask change followed by a varint count of the ticks it was held. A typical run only
+ * changes keys a few times per second, so a minute of play fits in a few hundred bytes.
+ * Recording a tick does not allocate; the run buffer only grows when it fills up.
+ * {@link ReplayPlayer} reads the format back.
+ */
+public class ReplayRecorder {
+    static final int MAGIC = 0x52475250; // "RGRP"
+    static final int VERSION = 1;
+    static final int END_OF_INPUTS = 0xFF;
+
+    private byte[] header;
+    private byte[] runs = new byte[256];
+    private int runsLength;
+    private int currentMask = -1;
+    private int currentRun;
+    private int tickCount;
+    private boolean recording;
+
+    /**
+     * Starts recording a run that has just been reset. Must be called after
+     * {@link RoadSimulation#reset(GameSettings.Difficulty, long)} and before the first step.
+     */
+    public void begin(RoadSimulation simulation, float tick) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(simulation.getSeed());
+            out.writeByte(simulation.getDifficulty().ordinal());
+            out.writeFloat(tick);
+            out.writeFloat(simulation.getWorldWidth());
+            out.writeFloat(simulation.getWorldHeight());
+            out.writeFloat(simulation.getCarWidth());
+            out.writeFloat(simulation.getCarHeight());
+            out.writeFloat(simulation.getObstacleWidth());
+            out.writeFloat(simulation.getObstacleHeight());
+            out.writeFloat(simulation.getFuelWidth());
+            out.writeFloat(simulation.getFuelHeight());
+            out.writeFloat(simulation.getPowerUpWidth());
+            out.writeFloat(simulation.getPowerUpHeight());
+            out.writeFloat(simulation.getBulletWidth());
+            out.writeFloat(simulation.getBulletHeight());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream does not throw
+        }
+        header = bytes.toByteArray();
+        runsLength = 0;
+        currentMask = -1;
+        currentRun = 0;
+        tickCount = 0;
+        recording = true;
+    }
+
+    /**
+     * Records the input used for one fixed tick. Call once per {@link RoadSimulation#step(float)}.
+     */
+    public void record(RoadSimulation.InputState input) {
+        if (!recording) return;
+        int mask = input.toMask();
+        if (mask != currentMask) {
+            flushRun();
+            currentMask = mask;
+        }
+        currentRun++;
+        tickCount++;
+    }
+
+    /**
+     * Ends the recording, storing the final score so playback can verify it reproduced the run.
+     */
+    public void end(int finalScore) {
+        if (!recording) return;
+        flushRun();
+        writeByte(END_OF_INPUTS);
+        writeVarInt(finalScore);
+        recording = false;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Writes the finished replay. {@link #end(int)} must have been called.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (header == null || recording) throw new IllegalStateException("Replay has not been ended");
+        out.write(header);
+        out.write(runs, 0, runsLength);
+    }
+
+    public byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(header == null ? 0 : header.length + runsLength);
+        writeTo(bytes);
+        return bytes.toByteArray();
+    }
+
+    private void flushRun() {
+        if (currentRun == 0) return;
+        writeByte(currentMask);
+        writeVarInt(currentRun);
+        currentRun = 0;
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        if (runsLength == runs.length) {
+            byte[] grown = new byte[runs.length * 2];
+            System.arraycopy(runs, 0, grown, 0, runsLength);
+            runs = grown;
+        }
+        runs[runsLength++] = (byte) value;
+    }
+}
@@ -3,38 +3,154 @@ package si.um.feri.temelko;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.SkinLoader;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 
 public class RoadGame extends Game {
+    // Gameplay atlas tiers packed by the packTextures Gradle task; keep in sync with atlasTiers in build.gradle
+    private static final String[] ATLAS_TIERS = {"1x", "2x"};
+    private static final float[] ATLAS_TIER_SCALES = {1f, 2f};
+    // Time per frame the AssetManager may spend finishing loaded assets on the render thread
+    private static final int LOADING_BUDGET_MILLIS = 8;
+
+    // Font for game text, rendered at each size it is drawn at and cached on disk by the FontService
+    private static final String FONT_PATH = "fonts/DejaVuSansMono-Bold.ttf";
+    private static final String FONT_CACHE_DIR = "fontcache/";
+
     private SpriteBatch batch;
-    private ShapeRenderer renderer;
     private AssetManager assetManager;
+    private FontService fonts;
+    private AudioManager audio;
     private GameSettings settings;
     private Music backgroundMusic;
-    private boolean musicLoaded = false;
+    // Set once the background music named by the sound bank has been queued
+    private boolean musicQueued = false;
     private String musicPath = null;
+    // Assets loadAssets() queues plus one for the music; the music's share of the progress is kept for it
+    // from the start, so the progress does not go back when it is queued late
+    private int loadingSteps = 1;
+    private String gameplayAtlasPath;
+    private boolean assetsLoaded = false;
+
+    // Screens are created once and reused: they build their UI on the first show and only refresh it later
+    private MenuScreen menuScreen;
+    private GameScreen gameScreen;
+    private SettingsScreen settingsScreen;
+    private LeaderboardScreen leaderboardScreen;
+
+    // Runtime metrics, exported by the desktop launcher over JMX and to an optional CSV file
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Histogram frameTime;
+    private final MetricsRegistry.Histogram renderTime;
+    private final MetricsRegistry.Counter frames;
+    private final MetricsRegistry.Gauge javaHeap;
+    private final MetricsRegistry.Histogram loadingUpdateTime;
+    private final MetricsRegistry.Gauge assetsLoadedCount;
+    private final MetricsRegistry.Gauge assetsLoadTime;
+    private long loadingStart;
+
+    public RoadGame() {
+        this(new MetricsRegistry());
+    }
+
+    public RoadGame(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        frameTime = metrics.timer("frame.time");
+        renderTime = metrics.timer("render.time");
+        frames = metrics.counter("frames");
+        javaHeap = metrics.gauge("memory.java.heap");
+        loadingUpdateTime = metrics.timer("assets.update.time");
+        assetsLoadedCount = metrics.gauge("assets.loaded");
+        assetsLoadTime = metrics.gauge("assets.load.time");
+    }
 
     @Override
     public void create() {
         batch = new SpriteBatch();
-        renderer = new ShapeRenderer();
         assetManager = new AssetManager();
-        settings = new GameSettings();
+        assetManager.setLoader(SoundBank.class, new SoundBank.Loader(new InternalFileHandleResolver()));
+        settings = new GameSettings(metrics);
+        audio = new AudioManager(settings, metrics);
+        fonts = new FontService(com.badlogic.gdx.Gdx.files.internal(FONT_PATH),
+            com.badlogic.gdx.Gdx.files.local(FONT_CACHE_DIR), metrics);
 
-        // Load all assets
+        // The intro only needs a few small textures; everything else streams in while it plays
+        loadIntroAssets();
         loadAssets();
 
-        // Wait for assets to finish loading
-        assetManager.finishLoading();
+        // Apply fullscreen setting, and keep the window and music in sync with later changes
+        applyFullscreen(settings.isFullscreen());
+        settings.addListener((previous, current) -> {
+            if (current.fullscreen != previous.fullscreen) {
+                applyFullscreen(current.fullscreen);
+            }
+            if (current.musicVolume != previous.musicVolume && backgroundMusic != null) {
+                backgroundMusic.setVolume(current.musicVolume);
+            }
+        });
+
+        // Start with IntroScreen
+        setScreen(new IntroScreen(this));
+    }
 
+    private void applyFullscreen(boolean fullscreen) {
+        if (fullscreen != com.badlogic.gdx.Gdx.graphics.isFullscreen()) {
+            if (fullscreen) {
+                com.badlogic.gdx.Gdx.graphics.setFullscreenMode(com.badlogic.gdx.Gdx.graphics.getDisplayMode());
+            } else {
+                com.badlogic.gdx.Gdx.graphics.setWindowedMode(1024, 768);
+            }
+        }
+    }
+
+    /**
+     * Advances asset loading by at most {@link #LOADING_BUDGET_MILLIS} of render-thread time.
+     * Returns true once every asset is loaded.
+     */
+    public boolean updateLoading() {
+        if (!assetsLoaded) {
+            long start = System.nanoTime();
+            boolean finished = assetManager.update(LOADING_BUDGET_MILLIS);
+            loadingUpdateTime.recordSince(start);
+            assetsLoadedCount.set(assetManager.getLoadedAssets());
+            if (finished && !musicQueued) {
+                // The bank names the optional music, which is loaded after it
+                musicQueued = true;
+                musicPath = getSoundBank().getMusicPath();
+                if (musicPath != null) {
+                    assetManager.load(musicPath, Music.class);
+                    finished = false;
+                }
+            }
+            if (finished) {
+                onAssetsLoaded();
+                assetsLoaded = true;
+                assetsLoadTime.set((System.nanoTime() - loadingStart) / 1_000_000.0);
+            }
+        }
+        return assetsLoaded;
+    }
+
+    /**
+     * Loading progress between 0 and 1; it only ever grows.
+     */
+    public float getLoadingProgress() {
+        if (assetsLoaded) return 1f;
+        float musicShare = 1f / loadingSteps;
+        if (!musicQueued) return assetManager.getProgress() * (1f - musicShare);
+        return 1f - musicShare + assetManager.getProgress() * musicShare;
+    }
+
+    private void onAssetsLoaded() {
         // Load music if available
-        if (musicLoaded && musicPath != null) {
+        if (musicPath != null) {
             try {
                 backgroundMusic = assetManager.get(musicPath, Music.class);
                 if (backgroundMusic != null) {
@@ -43,57 +159,71 @@ public class RoadGame extends Game {
                 }
             } catch (Exception e) {
                 // Music not available
-                musicLoaded = false;
                 backgroundMusic = null;
                 musicPath = null;
             }
         }
-
-        // Apply fullscreen setting
-        if (settings.isFullscreen() != com.badlogic.gdx.Gdx.graphics.isFullscreen()) {
-            if (settings.isFullscreen()) {
-                com.badlogic.gdx.Gdx.graphics.setFullscreenMode(com.badlogic.gdx.Gdx.graphics.getDisplayMode());
-            } else {
-                com.badlogic.gdx.Gdx.graphics.setWindowedMode(1024, 768);
-            }
-        }
-
-        // Start with IntroScreen
-        setScreen(new IntroScreen(this));
     }
 
-    private void loadAssets() {
-        // Load images
+    private void loadIntroAssets() {
+        // Images used by the intro itself (background is also used by every other screen)
         assetManager.load("images/car.png", Texture.class);
-        assetManager.load("images/obstacle.png", Texture.class);
-        assetManager.load("images/fuel.png", Texture.class);
-        assetManager.load("images/power-up.png", Texture.class);
-        assetManager.load("images/bullet.png", Texture.class);
         assetManager.load("images/background.png", Texture.class);
+        assetManager.load("images/hud-white.png", Texture.class);
+        assetManager.finishLoading();
+    }
 
-        // Load sounds
-        assetManager.load("sounds/crash.wav", Sound.class);
-        assetManager.load("sounds/power-up.wav", Sound.class);
-        assetManager.load("sounds/collect.wav", Sound.class);
-        assetManager.load("sounds/shoot.wav", Sound.class);
-
-        // Load background music (optional - file may not exist)
-        // Try to load OGG first (better for music), fallback to MP3
-        if (com.badlogic.gdx.Gdx.files.internal("sounds/background-music.ogg").exists()) {
-            this.musicPath = "sounds/background-music.ogg";
-            musicLoaded = true;
-        } else if (com.badlogic.gdx.Gdx.files.internal("sounds/background-music.mp3").exists()) {
-            this.musicPath = "sounds/background-music.mp3";
-            musicLoaded = true;
-        }
+    private void loadAssets() {
+        loadingStart = System.nanoTime();
 
-        if (musicLoaded && this.musicPath != null) {
-            assetManager.load(this.musicPath, Music.class);
-        }
+        // Gameplay sprites, pre-scaled and packed at build time by the packTextures Gradle task
+        chooseAtlasTier();
+        assetManager.load(gameplayAtlasPath, TextureAtlas.class);
+        // Roadside layers of the scrolling background; they repeat, so they cannot come from the atlas
+        assetManager.load("images/roadside.png", Texture.class);
+        assetManager.load("images/scenery.png", Texture.class);
+
+        // Sound effects, packed into one bank by the packSounds Gradle task; it also names the background music
+        assetManager.load(SoundBank.PATH, SoundBank.class);
 
         // Load skin
         SkinLoader.SkinParameter params = new SkinLoader.SkinParameter("skins/mySkin/star-soldier-ui.atlas");
         assetManager.load("skins/mySkin/star-soldier-ui.json", Skin.class, params);
+
+        loadingSteps = assetManager.getQueuedAssets() + 1;
+    }
+
+    /**
+     * Picks the smallest atlas tier that still covers the most screen pixels per world unit the game may
+     * be shown at: the window's back buffer, or the whole display in fullscreen, fitted to the virtual
+     * world size. Large and HiDPI displays get sharper sprites, smaller ones load the 1x page.
+     */
+    private void chooseAtlasTier() {
+        float windowHeight = com.badlogic.gdx.Gdx.graphics.getBackBufferHeight();
+        float displayHeight = com.badlogic.gdx.Gdx.graphics.getDisplayMode().height;
+        float density = Math.max(windowHeight, displayHeight) / GameScreen.WORLD_HEIGHT;
+        int tier = ATLAS_TIERS.length - 1;
+        for (int i = 0; i < ATLAS_TIERS.length; i++) {
+            if (ATLAS_TIER_SCALES[i] >= density - 0.01f) {
+                tier = i;
+                break;
+            }
+        }
+        gameplayAtlasPath = "atlas/gameplay-" + ATLAS_TIERS[tier] + ".atlas";
+    }
+
+    @Override
+    public void render() {
+        long start = System.nanoTime();
+        super.render();
+        // Starts the sound effects requested during the frame
+        audio.update();
+        // Writes settings changes once they have settled
+        settings.update();
+        renderTime.recordSince(start);
+        frameTime.record(com.badlogic.gdx.Gdx.graphics.getDeltaTime() * 1000.0);
+        frames.increment();
+        javaHeap.set(com.badlogic.gdx.Gdx.app.getJavaHeap());
     }
 
     @Override
@@ -103,31 +233,103 @@ public class RoadGame extends Game {
             backgroundMusic.stop();
             backgroundMusic = null;
         }
-        // Dispose all resources
+        // Dispose the cached screens, then all resources
+        if (menuScreen != null) menuScreen.dispose();
+        if (gameScreen != null) gameScreen.dispose();
+        if (settingsScreen != null) settingsScreen.dispose();
+        if (leaderboardScreen != null) leaderboardScreen.dispose();
+        settings.dispose();
+        fonts.dispose();
         batch.dispose();
-        renderer.dispose();
         // AssetManager disposes all assets loaded through it (Textures, Sounds, Music, Skin, etc.)
         assetManager.dispose();
     }
 
-    public SpriteBatch getBatch() {
-        return batch;
+    public void showMenu() {
+        if (menuScreen == null) menuScreen = new MenuScreen(this);
+        setScreen(menuScreen);
+    }
+
+    public void showGame() {
+        setScreen(getGameScreen());
     }
 
-    public ShapeRenderer getRenderer() {
-        return renderer;
+    public void showSettings() {
+        if (settingsScreen == null) settingsScreen = new SettingsScreen(this);
+        setScreen(settingsScreen);
+    }
+
+    public void showLeaderboard() {
+        if (leaderboardScreen == null) leaderboardScreen = new LeaderboardScreen(this);
+        setScreen(leaderboardScreen);
+    }
+
+    /**
+     * Creates the game screen and its fonts and sprites ahead of time, so Play starts without a hitch.
+     * Called by the menu while it is idle; does nothing once the screen is prepared.
+     */
+    public void prewarmGameScreen() {
+        getGameScreen().prepare();
+    }
+
+    private GameScreen getGameScreen() {
+        if (gameScreen == null) gameScreen = new GameScreen(this);
+        return gameScreen;
+    }
+
+    public SpriteBatch getBatch() {
+        return batch;
     }
 
     public AssetManager getAssetManager() {
         return assetManager;
     }
 
+    public TextureAtlas getGameplayAtlas() {
+        return assetManager.get(gameplayAtlasPath, TextureAtlas.class);
+    }
+
     /**
-     * Creates a default font for game UI. This is created here since
-     * default BitmapFont doesn't require file loading.
+     * The sound effects; owned by the AssetManager.
      */
-    public BitmapFont createDefaultFont() {
-        return new BitmapFont();
+    public SoundBank getSoundBank() {
+        return assetManager.get(SoundBank.PATH, SoundBank.class);
+    }
+
+    /**
+     * Font for game text at the given pixel size, so callers never need to change the scale while drawing.
+     * Fonts are shared and owned by the game; do not dispose them.
+     */
+    public BitmapFont getFont(int pixelSize) {
+        return fonts.get(pixelSize);
+    }
+
+    /**
+     * Copy of the skin's label style {@code styleName} that draws with {@link #getFont(int)} at the given
+     * pixel size, instead of scaling the skin's bitmap font.
+     */
+    public Label.LabelStyle getLabelStyle(Skin skin, String styleName, int pixelSize) {
+        Label.LabelStyle style = new Label.LabelStyle(skin.get(styleName, Label.LabelStyle.class));
+        style.font = getFont(pixelSize);
+        return style;
+    }
+
+    /**
+     * Copy of the skin's text button style {@code styleName} that draws with {@link #getFont(int)} at the
+     * given pixel size.
+     */
+    public TextButton.TextButtonStyle getTextButtonStyle(Skin skin, String styleName, int pixelSize) {
+        TextButton.TextButtonStyle style = new TextButton.TextButtonStyle(skin.get(styleName, TextButton.TextButtonStyle.class));
+        style.font = getFont(pixelSize);
+        return style;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public AudioManager getAudio() {
+        return audio;
     }
 
     public GameSettings getSettings() {
@@ -153,13 +355,4 @@ public class RoadGame extends Game {
         }
     }
 
-    /**
-     * Updates music volume based on settings.
-     */
-    public void updateMusicVolume() {
-        if (backgroundMusic != null) {
-            backgroundMusic.setVolume(settings.getMusicVolume());
-        }
-    }
-
 }
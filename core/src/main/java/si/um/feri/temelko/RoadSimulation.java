@@ -0,0 +1,464 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Random;
+
+/**
+ * Headless gameplay simulation of a single road run.
+ * Owns the car, obstacles, fuels, power-ups, bullets, spawn timers, health and score,
+ * and advances them in {@link #step(float)} from an {@link InputState} snapshot and a world size.
+ * It does not touch {@code Gdx.graphics}, {@code Gdx.input} or any other backend service,
+ * so it can be driven without a window at far more than real time.
+ */
+public class RoadSimulation {
+    public static final float MAX_HEALTH = 100f;
+    public static final float INVINCIBILITY_DURATION = 3f;
+    /** Step length the game runs at; sessions stepped with it are comparable with live play. */
+    public static final float FIXED_TICK = 1f / 120f;
+
+    // --- Sizes the game is played at, in world units ---
+    // A new simulation starts with them, so benchmarks and soak runs measure the same game
+    public static final float WORLD_WIDTH = 1024f;
+    public static final float WORLD_HEIGHT = 768f;
+
+    // --- Base speeds ---
+    private static final float CAR_SPEED = 500f;
+    private static final float OBSTACLE_SPEED = 300f;
+    private static final float FUEL_SPEED = 250f;
+    private static final float POWER_UP_SPEED = 220f;
+    private static final float BULLET_SPEED = 700f;
+    private static final float SHOOT_COOLDOWN_TIME = 0.25f;
+
+    // --- Gameplay tuning ---
+    private static final float CAR_Y = 100f;
+    private static final float CRASH_DAMAGE = 20f;
+    private static final float FUEL_HEAL = 10f;
+    private static final float SPEED_INCREASE_PER_CRASH = 0.1f;
+    private static final float FUEL_SPAWN_INTERVAL = 2f;
+    private static final float POWER_UP_SPAWN_INTERVAL = 5f;
+    private static final int FUEL_SCORE = 5;
+    private static final int OBSTACLE_SCORE = 10;
+
+    /**
+     * Snapshot of the player controls for the next {@link #step(float)}.
+     */
+    public static class InputState {
+        public static final int LEFT = 1;
+        public static final int RIGHT = 1 << 1;
+        public static final int SHOOT = 1 << 2;
+
+        public boolean left;
+        public boolean right;
+        public boolean shoot;
+
+        public void clear() {
+            left = false;
+            right = false;
+            shoot = false;
+        }
+
+        /**
+         * Packs the controls into a bitmask of {@link #LEFT}, {@link #RIGHT} and {@link #SHOOT}.
+         */
+        public int toMask() {
+            return (left ? LEFT : 0) | (right ? RIGHT : 0) | (shoot ? SHOOT : 0);
+        }
+
+        public void setMask(int mask) {
+            left = (mask & LEFT) != 0;
+            right = (mask & RIGHT) != 0;
+            shoot = (mask & SHOOT) != 0;
+        }
+    }
+
+    /**
+     * Receives gameplay events, e.g. to play sounds. All methods are called from within {@link #step(float)}.
+     */
+    public interface Listener {
+        void onCrash();
+
+        void onFuelCollected();
+
+        void onPowerUpCollected();
+
+        void onShot();
+    }
+
+    private final InputState input = new InputState();
+    private Listener listener;
+
+    private float worldWidth, worldHeight;
+    private float carWidth, carHeight;
+    private float obstacleWidth, obstacleHeight;
+    private float fuelWidth, fuelHeight;
+    private float powerUpWidth, powerUpHeight;
+    private float bulletWidth, bulletHeight;
+
+    // Entity storage is allocated once and reused across runs
+    private final Rectangle car = new Rectangle();
+    private final EntityPool obstacles = new EntityPool();
+    private final EntityPool fuels = new EntityPool();
+    private final EntityPool powerUps = new EntityPool();
+    private final EntityPool bullets = new EntityPool();
+    private final Random random = new Random();
+    private long seed;
+    private FrameProfiler profiler;
+    private GameSettings.Difficulty difficulty = GameSettings.Difficulty.NORMAL;
+
+    // Broadphase grids, rebuilt every tick after movement
+    private final SpatialHash obstacleHash = new SpatialHash();
+    private final SpatialHash fuelHash = new SpatialHash();
+    private final SpatialHash powerUpHash = new SpatialHash();
+    private final IntArray candidates = new IntArray();
+    private float obstacleSpawnTimer, fuelSpawnTimer, powerUpSpawnTimer, shootCooldown;
+
+    private int score;
+    private float currentHealth = MAX_HEALTH;
+    private boolean isInvincible = false;
+    private float invincibleTimer = 0f;
+
+    // --- Game speed ---
+    private float gameSpeedMultiplier = 1f;
+    private float difficultySpeedMultiplier = 1f;
+    private float difficultySpawnRate = 1f;
+
+    public RoadSimulation() {
+        setWorldSize(WORLD_WIDTH, WORLD_HEIGHT);
+        // Entities take the sizes their sprites are drawn at, generated from sprites.properties
+        setCarSize(SpriteSizes.CAR_WIDTH, SpriteSizes.CAR_HEIGHT);
+        setObstacleSize(SpriteSizes.OBSTACLE_WIDTH, SpriteSizes.OBSTACLE_HEIGHT);
+        setFuelSize(SpriteSizes.FUEL_WIDTH, SpriteSizes.FUEL_HEIGHT);
+        setPowerUpSize(SpriteSizes.POWER_UP_WIDTH, SpriteSizes.POWER_UP_HEIGHT);
+        setBulletSize(SpriteSizes.BULLET_WIDTH, SpriteSizes.BULLET_HEIGHT);
+    }
+
+    public void setWorldSize(float width, float height) {
+        this.worldWidth = width;
+        this.worldHeight = height;
+    }
+
+    public void setCarSize(float width, float height) {
+        carWidth = width;
+        carHeight = height;
+    }
+
+    public void setObstacleSize(float width, float height) {
+        obstacleWidth = width;
+        obstacleHeight = height;
+        obstacleHash.setCellSize(Math.max(width, height));
+    }
+
+    public void setFuelSize(float width, float height) {
+        fuelWidth = width;
+        fuelHeight = height;
+        fuelHash.setCellSize(Math.max(width, height));
+    }
+
+    public void setPowerUpSize(float width, float height) {
+        powerUpWidth = width;
+        powerUpHeight = height;
+        powerUpHash.setCellSize(Math.max(width, height));
+    }
+
+    public void setBulletSize(float width, float height) {
+        bulletWidth = width;
+        bulletHeight = height;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Times the spawn and movement/collision parts of every step into {@code profiler}; null disables it.
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Starts a new run with a fresh random seed. World and entity sizes must be set before calling this.
+     */
+    public void reset(GameSettings.Difficulty difficulty) {
+        reset(difficulty, System.nanoTime());
+    }
+
+    /**
+     * Starts a new run. Two runs with the same seed, difficulty, sizes and per-step deltas and inputs
+     * evolve identically, which is what replays rely on.
+     */
+    public void reset(GameSettings.Difficulty difficulty, long seed) {
+        this.difficulty = difficulty;
+        this.seed = seed;
+        car.set(worldWidth / 2f - carWidth / 2f, CAR_Y, carWidth, carHeight);
+        obstacles.clear();
+        fuels.clear();
+        powerUps.clear();
+        bullets.clear();
+        random.setSeed(seed);
+
+        obstacleSpawnTimer = 0;
+        fuelSpawnTimer = 0;
+        powerUpSpawnTimer = 0;
+        shootCooldown = 0;
+
+        score = 0;
+        currentHealth = MAX_HEALTH;
+        isInvincible = false;
+        invincibleTimer = 0f;
+        gameSpeedMultiplier = 1f;
+        input.clear();
+
+        // Apply difficulty settings
+        difficultySpeedMultiplier = difficulty.getSpeedMultiplier();
+        difficultySpawnRate = difficulty.getObstacleSpawnRate();
+    }
+
+    /**
+     * Advances the run by {@code delta} seconds using the current {@link #getInput() input} snapshot.
+     * Does nothing once the run is over.
+     */
+    public void step(float delta) {
+        if (isGameOver()) return;
+
+        // Car movement (apply difficulty multiplier)
+        float totalSpeedMultiplier = getTotalSpeedMultiplier();
+        if (input.left)
+            car.x -= CAR_SPEED * delta * totalSpeedMultiplier;
+        if (input.right)
+            car.x += CAR_SPEED * delta * totalSpeedMultiplier;
+        if (input.shoot)
+            shoot();
+
+        car.x = Math.max(0, Math.min(worldWidth - car.width, car.x));
+
+        if (shootCooldown > 0) shootCooldown -= delta;
+
+        // Spawning (apply difficulty spawn rate)
+        long spawnStart = profiler != null ? System.nanoTime() : 0L;
+        obstacleSpawnTimer += delta;
+        fuelSpawnTimer += delta;
+        powerUpSpawnTimer += delta;
+
+        float obstacleSpawnInterval = 1f / difficultySpawnRate;
+        if (obstacleSpawnTimer > obstacleSpawnInterval) {
+            obstacles.add(random.nextInt((int) worldWidth - (int) obstacleWidth),
+                worldHeight, obstacleWidth, obstacleHeight);
+            obstacleSpawnTimer = 0f;
+        }
+        if (fuelSpawnTimer > FUEL_SPAWN_INTERVAL) {
+            fuels.add(random.nextInt((int) worldWidth - (int) fuelWidth),
+                worldHeight, fuelWidth, fuelHeight);
+            fuelSpawnTimer = 0f;
+        }
+        if (powerUpSpawnTimer > POWER_UP_SPAWN_INTERVAL) {
+            powerUps.add(random.nextInt((int) worldWidth - (int) powerUpWidth),
+                worldHeight, powerUpWidth, powerUpHeight);
+            powerUpSpawnTimer = 0f;
+        }
+        long collisionStart = 0L;
+        if (profiler != null) {
+            collisionStart = System.nanoTime();
+            profiler.add(FrameProfiler.Phase.SPAWN, collisionStart - spawnStart);
+        }
+
+        // Move obstacles (apply difficulty multiplier)
+        moveAndCull(obstacles, -OBSTACLE_SPEED * delta * totalSpeedMultiplier);
+        obstacleHash.build(obstacles, worldWidth, worldHeight);
+        if (!isInvincible) {
+            obstacleHash.query(car.x, car.y, car.width, car.height, candidates);
+            for (int c = 0; c < candidates.size; c++) {
+                int i = candidates.get(c);
+                if (!obstacles.overlaps(i, car)) continue;
+                obstacles.kill(i);
+                currentHealth -= CRASH_DAMAGE;
+                if (currentHealth < 0f) currentHealth = 0f;
+                if (listener != null) listener.onCrash();
+                // permanent boost after crash
+                gameSpeedMultiplier += SPEED_INCREASE_PER_CRASH;
+            }
+        }
+
+        // Move fuels (apply difficulty multiplier)
+        moveAndCull(fuels, -FUEL_SPEED * delta * totalSpeedMultiplier);
+        fuelHash.build(fuels, worldWidth, worldHeight);
+        fuelHash.query(car.x, car.y, car.width, car.height, candidates);
+        for (int c = 0; c < candidates.size; c++) {
+            int i = candidates.get(c);
+            if (!fuels.overlaps(i, car)) continue;
+            fuels.kill(i);
+            currentHealth = Math.min(MAX_HEALTH, currentHealth + FUEL_HEAL);
+            score += FUEL_SCORE;
+            if (listener != null) listener.onFuelCollected();
+        }
+
+        // Move power-ups (apply difficulty multiplier)
+        moveAndCull(powerUps, -POWER_UP_SPEED * delta * totalSpeedMultiplier);
+        powerUpHash.build(powerUps, worldWidth, worldHeight);
+        powerUpHash.query(car.x, car.y, car.width, car.height, candidates);
+        for (int c = 0; c < candidates.size; c++) {
+            int i = candidates.get(c);
+            if (!powerUps.overlaps(i, car)) continue;
+            powerUps.kill(i);
+            isInvincible = true;
+            invincibleTimer = INVINCIBILITY_DURATION;
+            if (listener != null) listener.onPowerUpCollected();
+        }
+
+        if (isInvincible) {
+            invincibleTimer -= delta;
+            if (invincibleTimer <= 0f) isInvincible = false;
+        }
+
+        // Bullets (apply difficulty multiplier); each bullet destroys at most one nearby obstacle
+        float bulletStep = BULLET_SPEED * delta * totalSpeedMultiplier;
+        for (int i = 0; i < bullets.size(); i++) {
+            bullets.translateY(i, bulletStep);
+            if (bullets.getY(i) > worldHeight) {
+                bullets.kill(i);
+                continue;
+            }
+            obstacleHash.query(bullets.getX(i), bullets.getY(i), bullets.getWidth(i), bullets.getHeight(i), candidates);
+            for (int c = 0; c < candidates.size; c++) {
+                int j = candidates.get(c);
+                if (obstacles.isAlive(j) && bullets.overlaps(i, obstacles, j)) {
+                    obstacles.kill(j);
+                    bullets.kill(i);
+                    score += OBSTACLE_SCORE;
+                    break;
+                }
+            }
+        }
+
+        // Drop everything that was killed this tick
+        obstacles.compact();
+        fuels.compact();
+        powerUps.compact();
+        bullets.compact();
+        if (profiler != null) profiler.add(FrameProfiler.Phase.COLLISION, System.nanoTime() - collisionStart);
+    }
+
+    /**
+     * Moves every entity of the pool vertically and kills those that left the bottom of the world.
+     */
+    private static void moveAndCull(EntityPool pool, float amount) {
+        for (int i = 0; i < pool.size(); i++) {
+            pool.translateY(i, amount);
+            if (pool.getY(i) + pool.getHeight(i) < 0) pool.kill(i);
+        }
+    }
+
+    private void shoot() {
+        if (shootCooldown <= 0f) {
+            bullets.add(car.x + car.width / 2f - bulletWidth / 2f, car.y + car.height,
+                bulletWidth, bulletHeight);
+            if (listener != null) listener.onShot();
+            shootCooldown = SHOOT_COOLDOWN_TIME;
+        }
+    }
+
+    public InputState getInput() {
+        return input;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameSettings.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public float getWorldWidth() {
+        return worldWidth;
+    }
+
+    public float getWorldHeight() {
+        return worldHeight;
+    }
+
+    public float getCarWidth() {
+        return carWidth;
+    }
+
+    public float getCarHeight() {
+        return carHeight;
+    }
+
+    public float getObstacleWidth() {
+        return obstacleWidth;
+    }
+
+    public float getObstacleHeight() {
+        return obstacleHeight;
+    }
+
+    public float getFuelWidth() {
+        return fuelWidth;
+    }
+
+    public float getFuelHeight() {
+        return fuelHeight;
+    }
+
+    public float getPowerUpWidth() {
+        return powerUpWidth;
+    }
+
+    public float getPowerUpHeight() {
+        return powerUpHeight;
+    }
+
+    public float getBulletWidth() {
+        return bulletWidth;
+    }
+
+    public float getBulletHeight() {
+        return bulletHeight;
+    }
+
+    public Rectangle getCar() {
+        return car;
+    }
+
+    public EntityPool getObstacles() {
+        return obstacles;
+    }
+
+    public EntityPool getFuels() {
+        return fuels;
+    }
+
+    public EntityPool getPowerUps() {
+        return powerUps;
+    }
+
+    public EntityPool getBullets() {
+        return bullets;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public float getCurrentHealth() {
+        return currentHealth;
+    }
+
+    public boolean isInvincible() {
+        return isInvincible;
+    }
+
+    public float getInvincibleTimer() {
+        return invincibleTimer;
+    }
+
+    public float getTotalSpeedMultiplier() {
+        return gameSpeedMultiplier * difficultySpeedMultiplier;
+    }
+
+    public boolean isGameOver() {
+        return currentHealth <= 0;
+    }
+}
@@ -0,0 +1,228 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.utils.Array;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The best run of each player within one time window, limited to a fixed number of players.
+ * <p>
+ * Entries are kept in a bounded min-heap with the weakest entry at the root, plus a map from player
+ * key to entry, so a run costs O(log k): it improves its player's entry, or replaces the weakest one
+ * when it beats it. A board only holds runs from one period (day, week or all time); when a run or a
+ * read falls into a later period the board is emptied then, instead of being evicted on a timer.
+ * The sorted view is cached and only rebuilt after a change, so switching between boards is free.
+ */
+public class ScoreBoard {
+    /**
+     * Period of time a board covers. Days and weeks follow the local calendar; weeks start on Monday.
+     */
+    public enum Window {
+        TODAY("Today"),
+        THIS_WEEK("This Week"),
+        ALL_TIME("All Time");
+
+        private final String displayName;
+
+        Window(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+
+        /**
+         * Identifies the period containing {@code timeMillis}; later periods have larger ids.
+         */
+        public long periodOf(long timeMillis, ZoneId zone) {
+            if (this == ALL_TIME) return 0;
+            LocalDate date = Instant.ofEpochMilli(timeMillis).atZone(zone).toLocalDate();
+            if (this == THIS_WEEK) {
+                date = date.minusDays(date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+            }
+            return date.toEpochDay();
+        }
+    }
+
+    /**
+     * A player's best run on a board.
+     */
+    public static final class Entry {
+        private String key;
+        private String name;
+        private int score;
+        private GameSettings.Difficulty difficulty;
+        private long time;
+        private int heapIndex;
+
+        public String getName() {
+            return name;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public GameSettings.Difficulty getDifficulty() {
+            return difficulty;
+        }
+
+        /** Time of the run, in milliseconds since the epoch. */
+        public long getTime() {
+            return time;
+        }
+    }
+
+    private final Window window;
+    private final int capacity;
+    private final Entry[] heap;
+    private final Map<String, Entry> byKey;
+    private final Array<Entry> sorted;
+    private int size;
+    private long period;
+    private boolean sortedDirty;
+
+    public ScoreBoard(Window window, int capacity) {
+        this.window = window;
+        this.capacity = capacity;
+        heap = new Entry[capacity];
+        byKey = new HashMap<>(capacity * 2);
+        sorted = new Array<>(capacity);
+    }
+
+    public Window getWindow() {
+        return window;
+    }
+
+    /**
+     * Period id of the runs currently on the board, see {@link Window#periodOf}.
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Offers a run from {@code runPeriod}. Runs from an earlier period than the board's are ignored;
+     * a later period empties the board first. Returns true when the board changed.
+     */
+    public boolean add(long runPeriod, String key, String name, int score, GameSettings.Difficulty difficulty, long time) {
+        if (runPeriod < period) return false;
+        if (runPeriod > period) {
+            clear();
+            period = runPeriod;
+        }
+
+        Entry entry = byKey.get(key);
+        if (entry != null) {
+            if (score <= entry.score) return false;
+            entry.score = score;
+            entry.difficulty = difficulty;
+            entry.time = time;
+            // A better entry moves away from the root
+            siftDown(entry.heapIndex);
+        } else if (size < capacity) {
+            entry = new Entry();
+            set(entry, key, name, score, difficulty, time);
+            entry.heapIndex = size;
+            heap[size++] = entry;
+            byKey.put(key, entry);
+            siftUp(entry.heapIndex);
+        } else {
+            Entry weakest = heap[0];
+            if (compare(score, time, key, weakest.score, weakest.time, weakest.key) >= 0) return false;
+            // Reuse the evicted player's entry for the new one
+            byKey.remove(weakest.key);
+            set(weakest, key, name, score, difficulty, time);
+            byKey.put(key, weakest);
+            siftDown(0);
+        }
+        sortedDirty = true;
+        return true;
+    }
+
+    /**
+     * Entries sorted best first, after evicting them if the board's period has passed at {@code nowPeriod}.
+     * The array is owned by the board and must not be modified.
+     */
+    public Array<Entry> getEntries(long nowPeriod) {
+        if (nowPeriod > period) {
+            clear();
+            period = nowPeriod;
+        }
+        if (sortedDirty) {
+            sorted.clear();
+            for (int i = 0; i < size; i++) sorted.add(heap[i]);
+            sorted.sort((a, b) -> compare(a.score, a.time, a.key, b.score, b.time, b.key));
+            sortedDirty = false;
+        }
+        return sorted;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) heap[i] = null;
+        size = 0;
+        byKey.clear();
+        sortedDirty = true;
+    }
+
+    private static void set(Entry entry, String key, String name, int score, GameSettings.Difficulty difficulty, long time) {
+        entry.key = key;
+        entry.name = name;
+        entry.score = score;
+        entry.difficulty = difficulty;
+        entry.time = time;
+    }
+
+    /**
+     * Negative when the first run ranks above the second: higher score, then earlier, then by name.
+     */
+    private static int compare(int scoreA, long timeA, String keyA, int scoreB, long timeB, String keyB) {
+        if (scoreA != scoreB) return scoreA > scoreB ? -1 : 1;
+        if (timeA != timeB) return timeA < timeB ? -1 : 1;
+        return keyA.compareTo(keyB);
+    }
+
+    // Parents rank below their children, so the root is the weakest entry
+    private static boolean weaker(Entry a, Entry b) {
+        return compare(a.score, a.time, a.key, b.score, b.time, b.key) > 0;
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!weaker(entry, heap[parent])) break;
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && weaker(heap[child + 1], heap[child])) child++;
+            if (!weaker(heap[child], entry)) break;
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(Entry entry, int index) {
+        heap[index] = entry;
+        entry.heapIndex = index;
+    }
+}
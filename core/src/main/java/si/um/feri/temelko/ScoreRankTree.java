@@ -0,0 +1,156 @@
+package si.um.feri.temelko;
+
+/**
+ * Order-statistic treap of players ranked by best score (higher first, earlier on ties, then by name).
+ * Every node knows the size of its subtree, so inserting, removing, finding a player's rank and
+ * selecting the k-th player all take O(log n).
+ * A player's sort key must not change while it is in the tree: remove it, update it, insert it again.
+ */
+public class ScoreRankTree {
+    private static final class Node {
+        final ScoreStore.PlayerRecord player;
+        final int priority;
+        int size = 1;
+        Node left, right;
+
+        Node(ScoreStore.PlayerRecord player, int priority) {
+            this.player = player;
+            this.priority = priority;
+        }
+    }
+
+    private Node root;
+    private int seed = 0x2545F491;
+
+    public int size() {
+        return size(root);
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    public void insert(ScoreStore.PlayerRecord player) {
+        root = insert(root, new Node(player, nextPriority()));
+    }
+
+    public void remove(ScoreStore.PlayerRecord player) {
+        root = remove(root, player);
+    }
+
+    /**
+     * 1-based rank of {@code player}, which must be in the tree.
+     */
+    public int rankOf(ScoreStore.PlayerRecord player) {
+        int rank = 1;
+        Node node = root;
+        while (node != null) {
+            int c = compare(player, node.player);
+            if (c < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left);
+                if (c == 0) return rank;
+                rank++;
+                node = node.right;
+            }
+        }
+        throw new IllegalArgumentException("Player is not ranked: " + player.getName());
+    }
+
+    /**
+     * Player at the given 1-based rank, or null if there are fewer players.
+     */
+    public ScoreStore.PlayerRecord select(int rank) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (rank <= leftSize) {
+                node = node.left;
+            } else if (rank == leftSize + 1) {
+                return node.player;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    static int compare(ScoreStore.PlayerRecord a, ScoreStore.PlayerRecord b) {
+        if (a == b) return 0;
+        if (a.getBestScore() != b.getBestScore()) return a.getBestScore() > b.getBestScore() ? -1 : 1;
+        if (a.getBestTime() != b.getBestTime()) return a.getBestTime() < b.getBestTime() ? -1 : 1;
+        return a.getKey().compareTo(b.getKey());
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) return inserted;
+        if (compare(inserted.player, node.player) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, ScoreStore.PlayerRecord player) {
+        if (node == null) return null;
+        int c = compare(player, node.player);
+        if (c < 0) {
+            node.left = remove(node.left, player);
+        } else if (c > 0) {
+            node.right = remove(node.right, player);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            // Rotate the node down towards a leaf, keeping the heap order of priorities
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = remove(node.right, player);
+            } else {
+                node = rotateLeft(node);
+                node.left = remove(node.left, player);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private int nextPriority() {
+        // xorshift32; treap balance only needs the priorities to look random
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
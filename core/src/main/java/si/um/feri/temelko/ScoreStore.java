@@ -0,0 +1,501 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistent store of every run ever played, with each player's best run ranked.
+ * <ul>
+ * <li>Runs are appended as fixed-size records to a memory-mapped log, so recording one is a few
+ * memory writes and never a blocking system call.</li>
+ * <li>Players are found through a hash index on their lower-cased name, so names match ignoring case.</li>
+ * <li>Best runs are ranked in a {@link ScoreRankTree}, so inserts and rank queries are O(log n).</li>
+ * <li>Every run is also offered to a {@link ScoreBoard} per difficulty (and one for all of them) and
+ * per {@link ScoreBoard.Window}, each holding the top players in O(log k) per run.</li>
+ * <li>The index is checkpointed through the {@link PersistenceWriter}. Every {@link #CHECKPOINT_INTERVAL}
+ * runs only a delta is encoded: the players changed since the last full index, plus the boards, which
+ * are bounded. The full index, whose cost grows with the number of players, is only written on
+ * {@link #close()} and {@link #clear()}. Startup loads the full index and the delta, and only replays
+ * the runs logged after them, instead of the whole history.</li>
+ * </ul>
+ * Not thread-safe; used from the render thread.
+ */
+public class ScoreStore {
+    private static final int LOG_MAGIC = 0x5247534c; // "RGSL"
+    private static final int INDEX_MAGIC = 0x52475349; // "RGSI"
+    private static final int DELTA_MAGIC = 0x52475344; // "RGSD"
+    private static final int DELTA_VERSION = 1;
+    private static final int VERSION = 1;
+    private static final int INDEX_VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 64;
+    private static final int MAX_NAME_BYTES = RECORD_SIZE - 14;
+    private static final int COUNT_OFFSET = 8;
+    private static final long MIN_MAPPED_SIZE = 1 << 20;
+    static final int CHECKPOINT_INTERVAL = 256;
+
+    /**
+     * A player's best run and how many runs they played.
+     */
+    public static final class PlayerRecord {
+        private final String key;
+        private final String name;
+        private int bestScore;
+        private GameSettings.Difficulty bestDifficulty;
+        private long bestTime;
+        private int runs;
+
+        PlayerRecord(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        /** Sets the best run; a ranked player must be removed from the {@link ScoreRankTree} first. */
+        void setBest(int score, GameSettings.Difficulty difficulty, long timeMillis) {
+            bestScore = score;
+            bestDifficulty = difficulty;
+            bestTime = timeMillis;
+        }
+
+        /** Name as first entered by the player. */
+        public String getName() {
+            return name;
+        }
+
+        public int getBestScore() {
+            return bestScore;
+        }
+
+        public GameSettings.Difficulty getBestDifficulty() {
+            return bestDifficulty;
+        }
+
+        /** Time of the best run, in milliseconds since the epoch. */
+        public long getBestTime() {
+            return bestTime;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+    }
+
+    private final File logFile;
+    private final File indexFile;
+    private final File deltaFile;
+    private final PersistenceWriter writer;
+    private final Map<String, PlayerRecord> players = new HashMap<>();
+    private final ScoreRankTree ranking = new ScoreRankTree();
+    // Indexed by difficulty ordinal + 1 (0 holds every difficulty), then by window ordinal
+    private final ScoreBoard[][] boards;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    private long runCount;
+    private long checkpointedRuns;
+    // Runs covered by the full index, and the players changed since, which the next delta holds
+    private long indexedRuns;
+    private final Set<PlayerRecord> changedPlayers = new LinkedHashSet<>();
+
+    /**
+     * Opens (or creates) the store. {@code boardSize} is the number of players each {@link ScoreBoard} keeps.
+     */
+    public ScoreStore(File logFile, File indexFile, PersistenceWriter writer, int boardSize) throws IOException {
+        this.logFile = logFile;
+        this.indexFile = indexFile;
+        deltaFile = new File(indexFile.getPath() + ".delta");
+        this.writer = writer;
+        ScoreBoard.Window[] windows = ScoreBoard.Window.values();
+        boards = new ScoreBoard[GameSettings.Difficulty.values().length + 1][windows.length];
+        for (ScoreBoard[] row : boards) {
+            for (int w = 0; w < windows.length; w++) row[w] = new ScoreBoard(windows[w], boardSize);
+        }
+        openLog();
+
+        indexedRuns = loadIndex();
+        long replayFrom = loadDelta(indexedRuns);
+        for (long i = replayFrom; i < runCount; i++) {
+            applyRecord(i);
+        }
+        checkpointedRuns = replayFrom;
+    }
+
+    /**
+     * Appends a run to the log and updates the player's best score and rank.
+     */
+    public void addRun(String playerName, int score, GameSettings.Difficulty difficulty, long timeMillis) {
+        byte[] name = encodeName(playerName);
+        long offset = ensureCapacity(runCount + 1);
+        int position = (int) offset;
+        log.putLong(position, timeMillis);
+        log.putInt(position + 8, score);
+        log.put(position + 12, (byte) difficulty.ordinal());
+        log.put(position + 13, (byte) name.length);
+        for (int i = 0; i < name.length; i++) log.put(position + 14 + i, name[i]);
+        // The count is only advanced once the record is complete
+        runCount++;
+        log.putLong(COUNT_OFFSET, runCount);
+
+        apply(new String(name, StandardCharsets.UTF_8), score, difficulty, timeMillis);
+        if (runCount - checkpointedRuns >= CHECKPOINT_INTERVAL) checkpointDelta();
+    }
+
+    public PlayerRecord getPlayer(String playerName) {
+        return players.get(key(playerName));
+    }
+
+    /**
+     * 1-based rank of the player's best run among all players, or 0 for an unknown player.
+     */
+    public int getRank(String playerName) {
+        PlayerRecord player = getPlayer(playerName);
+        return player == null ? 0 : ranking.rankOf(player);
+    }
+
+    /**
+     * Player at the given 1-based rank, or null.
+     */
+    public PlayerRecord getPlayerAtRank(int rank) {
+        return ranking.select(rank);
+    }
+
+    /**
+     * Best players of a board, best first. {@code difficulty} null selects the board across all
+     * difficulties. Runs from a window's previous period are dropped here. Must not be modified.
+     */
+    public Array<ScoreBoard.Entry> getBoard(GameSettings.Difficulty difficulty, ScoreBoard.Window window) {
+        ScoreBoard board = boards[difficulty == null ? 0 : difficulty.ordinal() + 1][window.ordinal()];
+        return board.getEntries(window.periodOf(System.currentTimeMillis(), zone));
+    }
+
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    public long getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Forgets every run and player.
+     */
+    public void clear() {
+        runCount = 0;
+        log.putLong(COUNT_OFFSET, 0L);
+        players.clear();
+        ranking.clear();
+        for (ScoreBoard[] row : boards) {
+            for (ScoreBoard board : row) board.clear();
+        }
+        checkpointIndex();
+    }
+
+    /**
+     * Writes the full index and releases the log. The index is written by the
+     * {@link PersistenceWriter}, which must be closed afterwards to wait for it.
+     */
+    public void close() {
+        if (channel == null) return;
+        if (indexedRuns != runCount || runCount == 0) checkpointIndex();
+        log.force();
+        try {
+            channel.close();
+            file.close();
+        } catch (IOException e) {
+            Gdx.app.error("ScoreStore", "Could not close score log " + logFile, e);
+        }
+        channel = null;
+    }
+
+    private void apply(String playerName, int score, GameSettings.Difficulty difficulty, long timeMillis) {
+        String key = key(playerName);
+        PlayerRecord player = players.get(key);
+        if (player == null) {
+            player = new PlayerRecord(key, playerName);
+            player.setBest(score, difficulty, timeMillis);
+            player.runs = 1;
+            players.put(key, player);
+            ranking.insert(player);
+        } else {
+            player.runs++;
+            if (score > player.bestScore) {
+                ranking.remove(player);
+                player.setBest(score, difficulty, timeMillis);
+                ranking.insert(player);
+            }
+        }
+        changedPlayers.add(player);
+
+        ScoreBoard[] all = boards[0];
+        ScoreBoard[] forDifficulty = boards[difficulty.ordinal() + 1];
+        for (int w = 0; w < all.length; w++) {
+            long period = all[w].getWindow().periodOf(timeMillis, zone);
+            all[w].add(period, key, player.name, score, difficulty, timeMillis);
+            forDifficulty[w].add(period, key, player.name, score, difficulty, timeMillis);
+        }
+    }
+
+    private void applyRecord(long index) {
+        int position = (int) (HEADER_SIZE + index * RECORD_SIZE);
+        long time = log.getLong(position);
+        int score = log.getInt(position + 8);
+        int difficultyIndex = log.get(position + 12);
+        int nameLength = Math.min(MAX_NAME_BYTES, log.get(position + 13) & 0xFF);
+        byte[] name = new byte[nameLength];
+        for (int i = 0; i < nameLength; i++) name[i] = log.get(position + 14 + i);
+        GameSettings.Difficulty[] difficulties = GameSettings.Difficulty.values();
+        GameSettings.Difficulty difficulty = difficultyIndex >= 0 && difficultyIndex < difficulties.length
+            ? difficulties[difficultyIndex] : GameSettings.Difficulty.NORMAL;
+        apply(new String(name, StandardCharsets.UTF_8), score, difficulty, time);
+    }
+
+    private void openLog() throws IOException {
+        File parent = logFile.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        boolean created = !logFile.exists() || logFile.length() < HEADER_SIZE;
+        file = new RandomAccessFile(logFile, "rw");
+        channel = file.getChannel();
+        long size = Math.max(MIN_MAPPED_SIZE, channel.size());
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (created) {
+            log.putInt(0, LOG_MAGIC);
+            log.putInt(4, VERSION);
+            log.putLong(COUNT_OFFSET, 0L);
+        } else if (log.getInt(0) != LOG_MAGIC || log.getInt(4) != VERSION) {
+            throw new IOException("Not a score log: " + logFile);
+        }
+        runCount = log.getLong(COUNT_OFFSET);
+        long capacity = (size - HEADER_SIZE) / RECORD_SIZE;
+        if (runCount < 0 || runCount > capacity) throw new IOException("Corrupt score log: " + logFile);
+    }
+
+    /**
+     * Makes room for {@code records} records, remapping a larger region when needed, and returns the
+     * offset of the last one.
+     */
+    private long ensureCapacity(long records) {
+        long needed = HEADER_SIZE + records * RECORD_SIZE;
+        if (needed > log.capacity()) {
+            long size = log.capacity();
+            while (size < needed) size *= 2;
+            if (size > Integer.MAX_VALUE) throw new IllegalStateException("Score log is full");
+            try {
+                log.force();
+                log = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow score log " + logFile, e);
+            }
+        }
+        return needed - RECORD_SIZE;
+    }
+
+    /**
+     * Loads the full index and returns the number of logged runs it covers, or 0 when the whole log
+     * has to be replayed.
+     */
+    private long loadIndex() {
+        if (!indexFile.exists()) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readUnsignedByte() != INDEX_VERSION) return 0;
+            long coveredRuns = in.readLong();
+            if (coveredRuns > runCount) return 0; // log was cleared or replaced since
+            readPlayers(in, false);
+            readBoards(in);
+            return coveredRuns;
+        } catch (IOException e) {
+            Gdx.app.error("ScoreStore", "Could not read score index " + indexFile + ", replaying the log", e);
+            clearIndex();
+            return 0;
+        }
+    }
+
+    /**
+     * Applies the delta written on top of a full index covering {@code indexedRuns}, and returns the
+     * number of logged runs covered now. A delta written on top of another index is ignored.
+     */
+    private long loadDelta(long indexedRuns) {
+        if (!deltaFile.exists()) return indexedRuns;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(deltaFile)))) {
+            if (in.readInt() != DELTA_MAGIC || in.readUnsignedByte() != DELTA_VERSION) return indexedRuns;
+            if (in.readLong() != indexedRuns) return indexedRuns;
+            long coveredRuns = in.readLong();
+            if (coveredRuns < indexedRuns || coveredRuns > runCount) return indexedRuns;
+            readPlayers(in, true);
+            // The delta holds the complete boards
+            for (ScoreBoard[] row : boards) {
+                for (ScoreBoard board : row) board.clear();
+            }
+            readBoards(in);
+            return coveredRuns;
+        } catch (IOException e) {
+            // Part of the delta may have been applied, so start again from the log alone
+            Gdx.app.error("ScoreStore", "Could not read score index " + deltaFile + ", replaying the log", e);
+            clearIndex();
+            this.indexedRuns = 0;
+            return 0;
+        }
+    }
+
+    private void clearIndex() {
+        players.clear();
+        ranking.clear();
+        changedPlayers.clear();
+        for (ScoreBoard[] row : boards) {
+            for (ScoreBoard board : row) board.clear();
+        }
+    }
+
+    /**
+     * Reads player records; a player already known is replaced. Players read from a delta differ from
+     * the full index, so they are marked {@code changed} and stay in every later delta.
+     */
+    private void readPlayers(DataInputStream in, boolean changed) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            PlayerRecord player = new PlayerRecord(key(name), name);
+            int score = in.readInt();
+            GameSettings.Difficulty difficulty = difficulty(in.readUnsignedByte());
+            player.setBest(score, difficulty, in.readLong());
+            player.runs = in.readInt();
+            PlayerRecord previous = players.put(player.key, player);
+            if (previous != null) {
+                ranking.remove(previous);
+                changedPlayers.remove(previous);
+            }
+            ranking.insert(player);
+            if (changed) changedPlayers.add(player);
+        }
+    }
+
+    private void readBoards(DataInputStream in) throws IOException {
+        for (ScoreBoard[] row : boards) {
+            for (ScoreBoard board : row) {
+                long period = in.readLong();
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String name = in.readUTF();
+                    int score = in.readInt();
+                    GameSettings.Difficulty difficulty = difficulty(in.readUnsignedByte());
+                    long time = in.readLong();
+                    board.add(period, key(name), name, score, difficulty, time);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes every player and board as the new full index. O(players), so it is only written on
+     * close and after a clear, never after a run.
+     */
+    private void checkpointIndex() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + players.size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeByte(INDEX_VERSION);
+            out.writeLong(runCount);
+            writePlayers(out, players.values());
+            writeBoards(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream does not throw
+        }
+        writer.submit(indexFile, bytes.toByteArray());
+        // A delta left from before refers to the previous index and is ignored from now on
+        indexedRuns = runCount;
+        checkpointedRuns = runCount;
+        changedPlayers.clear();
+    }
+
+    /**
+     * Encodes the players changed since the full index, and the boards, as the new delta.
+     */
+    private void checkpointDelta() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + changedPlayers.size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(DELTA_MAGIC);
+            out.writeByte(DELTA_VERSION);
+            out.writeLong(indexedRuns);
+            out.writeLong(runCount);
+            writePlayers(out, changedPlayers);
+            writeBoards(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream does not throw
+        }
+        writer.submit(deltaFile, bytes.toByteArray());
+        checkpointedRuns = runCount;
+    }
+
+    private static void writePlayers(DataOutputStream out, Collection<PlayerRecord> players) throws IOException {
+        out.writeInt(players.size());
+        for (PlayerRecord player : players) {
+            out.writeUTF(player.name);
+            out.writeInt(player.bestScore);
+            out.writeByte(player.bestDifficulty.ordinal());
+            out.writeLong(player.bestTime);
+            out.writeInt(player.runs);
+        }
+    }
+
+    private void writeBoards(DataOutputStream out) throws IOException {
+        for (ScoreBoard[] row : boards) {
+            for (ScoreBoard board : row) {
+                // Sorted entries are cached anyway; passing the board's own period never evicts them
+                Array<ScoreBoard.Entry> entries = board.getEntries(board.getPeriod());
+                out.writeLong(board.getPeriod());
+                out.writeInt(entries.size);
+                for (ScoreBoard.Entry entry : entries) {
+                    out.writeUTF(entry.getName());
+                    out.writeInt(entry.getScore());
+                    out.writeByte(entry.getDifficulty().ordinal());
+                    out.writeLong(entry.getTime());
+                }
+            }
+        }
+    }
+
+    private static GameSettings.Difficulty difficulty(int index) {
+        GameSettings.Difficulty[] difficulties = GameSettings.Difficulty.values();
+        return index < difficulties.length ? difficulties[index] : GameSettings.Difficulty.NORMAL;
+    }
+
+    private static String key(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * UTF-8 bytes of the name, cut at a character boundary to fit a record.
+     */
+    private static byte[] encodeName(String playerName) {
+        byte[] bytes = playerName.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_NAME_BYTES) return bytes;
+        int length = MAX_NAME_BYTES;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) length--;
+        byte[] cut = new byte[length];
+        System.arraycopy(bytes, 0, cut, 0, length);
+        return cut;
+    }
+}
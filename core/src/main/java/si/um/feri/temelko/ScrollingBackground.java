@@ -0,0 +1,84 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Endless vertically scrolling background made of parallax layers.
+ * <p>
+ * Each layer is a texture set to repeat vertically and drawn as one quad. Scrolling only moves the
+ * quad's texture coordinates, so the GPU wraps the image and no layer is ever drawn twice to hide
+ * its seam. Layers cover a horizontal band of the background, given as fractions of its width, and
+ * scroll at their own multiple of the base distance: above 1 for things closer to the camera.
+ * Layers are drawn in the order they were added.
+ */
+public class ScrollingBackground {
+    private static final class Layer {
+        private final Texture texture;
+        private final float x;
+        private final float width;
+        private final float speedFactor;
+        private final boolean mirrored;
+        // Screen height of one repetition of the texture, and the current scroll position in repetitions
+        private float tileHeight;
+        private float offset;
+
+        private Layer(Texture texture, float x, float width, float speedFactor, boolean mirrored) {
+            this.texture = texture;
+            this.x = x;
+            this.width = width;
+            this.speedFactor = speedFactor;
+            this.mirrored = mirrored;
+        }
+    }
+
+    private final Array<Layer> layers = new Array<>();
+    private float width;
+    private float height;
+
+    /**
+     * Adds a layer covering {@code x} to {@code x + width} of the background width (0 to 1), scrolling
+     * {@code speedFactor} times as fast as the base distance. A mirrored layer is flipped horizontally.
+     * The texture is switched to repeat vertically. OpenGL ES 2 only repeats textures whose width and
+     * height are both powers of two, so every layer image (the road, verges and scenery) is sized that way.
+     */
+    public void addLayer(Texture texture, float x, float width, float speedFactor, boolean mirrored) {
+        texture.setWrap(Texture.TextureWrap.ClampToEdge, Texture.TextureWrap.Repeat);
+        layers.add(new Layer(texture, x, width, speedFactor, mirrored));
+    }
+
+    /**
+     * Sets the size of the background in screen units and restarts the scrolling. Textures are scaled
+     * to the width of their band and keep their aspect ratio.
+     */
+    public void setSize(float width, float height) {
+        this.width = width;
+        this.height = height;
+        for (Layer layer : layers) {
+            layer.tileHeight = layer.texture.getHeight() * (layer.width * width / layer.texture.getWidth());
+            layer.offset = 0f;
+        }
+    }
+
+    /**
+     * Moves the background down by {@code distance} screen units, scaled per layer.
+     */
+    public void scroll(float distance) {
+        for (Layer layer : layers) {
+            // Kept within one repetition so the texture coordinates never lose precision
+            layer.offset = (layer.offset - distance * layer.speedFactor / layer.tileHeight) % 1f;
+        }
+    }
+
+    public void draw(SpriteBatch batch) {
+        for (Layer layer : layers) {
+            float u = layer.mirrored ? 1f : 0f;
+            float u2 = layer.mirrored ? 0f : 1f;
+            // v grows downwards in the texture, so the bottom edge gets the larger coordinate
+            float v2 = layer.offset;
+            float v = v2 + height / layer.tileHeight;
+            batch.draw(layer.texture, layer.x * width, 0f, layer.width * width, height, u, v, u2, v2);
+        }
+    }
+}
@@ -25,6 +25,13 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
 public class SettingsScreen extends ScreenAdapter {
+    // Pixel sizes of the game font; the skin's own font would have to be scaled
+    private static final int TITLE_FONT_SIZE = 136;
+    private static final int HEADING_FONT_SIZE = 20;
+    private static final int LABEL_FONT_SIZE = 18;
+    private static final int VALUE_FONT_SIZE = 16;
+    private static final int TEXT_FONT_SIZE = 15;
+
     private final RoadGame game;
     private final AssetManager assetManager;
     private final GameSettings settings;
@@ -41,6 +48,7 @@ public class SettingsScreen extends ScreenAdapter {
     private SelectBox<GameSettings.Difficulty> difficultySelectBox;
     private CheckBox fullscreenCheckBox;
     private CheckBox showFpsCheckBox;
+    private CheckBox showProfilerCheckBox;
 
     public SettingsScreen(RoadGame game) {
         this.game = game;
@@ -50,13 +58,18 @@ public class SettingsScreen extends ScreenAdapter {
 
     @Override
     public void show() {
-        viewport = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        stage = new Stage(viewport, game.getBatch());
+        // The stage is built on the first show; later shows only refresh the widgets
+        if (stage == null) {
+            viewport = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            stage = new Stage(viewport, game.getBatch());
 
-        skin = assetManager.get("skins/mySkin/star-soldier-ui.json", Skin.class);
-        background = assetManager.get("images/background.png", Texture.class);
+            skin = assetManager.get("skins/mySkin/star-soldier-ui.json", Skin.class);
+            background = assetManager.get("images/background.png", Texture.class);
 
-        stage.addActor(createUi());
+            stage.addActor(createUi());
+        } else {
+            refreshWidgets();
+        }
 
         // Start/resume background music in settings
         game.playMusic();
@@ -82,7 +95,7 @@ public class SettingsScreen extends ScreenAdapter {
         settings.save();
         // Reset input processor to prevent dangling references
         Gdx.input.setInputProcessor(null);
-        dispose();
+        // The screen is cached by RoadGame; its stage is only disposed with the game
     }
 
     @Override
@@ -99,15 +112,15 @@ public class SettingsScreen extends ScreenAdapter {
         table.defaults().pad(10);
         table.setBackground(new TextureRegionDrawable(background));
 
-        Label titleLabel = new Label("Settings", skin, "title");
-        titleLabel.setFontScale(1.8f);
+        Label titleLabel = new Label("Settings", game.getLabelStyle(skin, "title", TITLE_FONT_SIZE));
+        Label.LabelStyle labelStyle = game.getLabelStyle(skin, "default", LABEL_FONT_SIZE);
+        Label.LabelStyle valueStyle = game.getLabelStyle(skin, "default", VALUE_FONT_SIZE);
 
         Table settingsTable = new Table();
         settingsTable.defaults().pad(10).left();
 
         // Player Name
-        Label nameLabel = new Label("Player Name:", skin);
-        nameLabel.setFontScale(1.1f);
+        Label nameLabel = new Label("Player Name:", labelStyle);
         settingsTable.add(nameLabel).width(250);
 
         playerNameField = new TextField(settings.getPlayerName(), skin);
@@ -117,8 +130,7 @@ public class SettingsScreen extends ScreenAdapter {
         settingsTable.row();
 
         // Sound Volume
-        Label soundLabel = new Label("Sound Volume:", skin);
-        soundLabel.setFontScale(1.1f);
+        Label soundLabel = new Label("Sound Volume:", labelStyle);
         settingsTable.add(soundLabel).width(250);
 
         soundVolumeSlider = new Slider(0f, 1f, 0.01f, false, skin);
@@ -133,14 +145,12 @@ public class SettingsScreen extends ScreenAdapter {
         });
         settingsTable.add(soundVolumeSlider).width(280).padLeft(15);
 
-        soundVolumeLabel = new Label(String.format("%.0f%%", settings.getSoundVolume() * 100), skin);
-        soundVolumeLabel.setFontScale(1f);
+        soundVolumeLabel = new Label(String.format("%.0f%%", settings.getSoundVolume() * 100), valueStyle);
         settingsTable.add(soundVolumeLabel).width(80).padLeft(10);
         settingsTable.row();
 
         // Music Volume
-        Label musicLabel = new Label("Music Volume:", skin);
-        musicLabel.setFontScale(1.1f);
+        Label musicLabel = new Label("Music Volume:", labelStyle);
         settingsTable.add(musicLabel).width(250);
 
         musicVolumeSlider = new Slider(0f, 1f, 0.01f, false, skin);
@@ -150,20 +160,17 @@ public class SettingsScreen extends ScreenAdapter {
             public void changed(ChangeEvent event, Actor actor) {
                 float volume = musicVolumeSlider.getValue();
                 settings.setMusicVolume(volume);
-                game.updateMusicVolume();
                 updateMusicVolumeLabel(volume);
             }
         });
         settingsTable.add(musicVolumeSlider).width(280).padLeft(15);
 
-        musicVolumeLabel = new Label(String.format("%.0f%%", settings.getMusicVolume() * 100), skin);
-        musicVolumeLabel.setFontScale(1f);
+        musicVolumeLabel = new Label(String.format("%.0f%%", settings.getMusicVolume() * 100), valueStyle);
         settingsTable.add(musicVolumeLabel).width(80).padLeft(10);
         settingsTable.row();
 
         // Difficulty
-        Label difficultyLabel = new Label("Difficulty:", skin);
-        difficultyLabel.setFontScale(1.1f);
+        Label difficultyLabel = new Label("Difficulty:", labelStyle);
         settingsTable.add(difficultyLabel).width(250);
 
         difficultySelectBox = new SelectBox<>(skin);
@@ -180,8 +187,7 @@ public class SettingsScreen extends ScreenAdapter {
         settingsTable.row();
 
         // Fullscreen
-        Label fullscreenLabel = new Label("Fullscreen:", skin);
-        fullscreenLabel.setFontScale(1.1f);
+        Label fullscreenLabel = new Label("Fullscreen:", labelStyle);
         settingsTable.add(fullscreenLabel).width(250);
 
         fullscreenCheckBox = new CheckBox("", skin);
@@ -189,22 +195,15 @@ public class SettingsScreen extends ScreenAdapter {
         fullscreenCheckBox.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                boolean fullscreen = fullscreenCheckBox.isChecked();
-                settings.setFullscreen(fullscreen);
-                // Apply fullscreen change
-                if (fullscreen) {
-                    Gdx.graphics.setFullscreenMode(Gdx.graphics.getDisplayMode());
-                } else {
-                    Gdx.graphics.setWindowedMode(1024, 768);
-                }
+                // RoadGame applies the change to the window
+                settings.setFullscreen(fullscreenCheckBox.isChecked());
             }
         });
         settingsTable.add(fullscreenCheckBox).padLeft(15);
         settingsTable.row();
 
         // Show FPS
-        Label fpsLabel = new Label("Show FPS:", skin);
-        fpsLabel.setFontScale(1.1f);
+        Label fpsLabel = new Label("Show FPS:", labelStyle);
         settingsTable.add(fpsLabel).width(250);
 
         showFpsCheckBox = new CheckBox("", skin);
@@ -218,9 +217,23 @@ public class SettingsScreen extends ScreenAdapter {
         settingsTable.add(showFpsCheckBox).padLeft(15);
         settingsTable.row();
 
+        // Profiler overlay (frame timings, replaces the FPS counter in game)
+        Label profilerLabel = new Label("Profiler:", labelStyle);
+        settingsTable.add(profilerLabel).width(250);
+
+        showProfilerCheckBox = new CheckBox("", skin);
+        showProfilerCheckBox.setChecked(settings.isShowProfiler());
+        showProfilerCheckBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                settings.setShowProfiler(showProfilerCheckBox.isChecked());
+            }
+        });
+        settingsTable.add(showProfilerCheckBox).padLeft(15);
+        settingsTable.row();
+
         // Controls Info
-        Label controlsTitle = new Label("Controls:", skin);
-        controlsTitle.setFontScale(1.2f);
+        Label controlsTitle = new Label("Controls:", game.getLabelStyle(skin, "default", HEADING_FONT_SIZE));
         settingsTable.add(controlsTitle).colspan(3).center().padTop(15).row();
 
         Label controlsLabel = new Label(
@@ -229,44 +242,26 @@ public class SettingsScreen extends ScreenAdapter {
                 SPACE - Shoot
                 ESC - Return to menu
                 R - Restart (after game over)""",
-            skin);
-        controlsLabel.setFontScale(0.9f);
+            game.getLabelStyle(skin, "default", TEXT_FONT_SIZE));
         settingsTable.add(controlsLabel).colspan(3).padTop(8).center().row();
 
         // Buttons
-        TextButton backButton = new TextButton("Back to Menu", skin);
+        TextButton backButton = new TextButton("Back to Menu", game.getTextButtonStyle(skin, "default", VALUE_FONT_SIZE));
         backButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.setScreen(new MenuScreen(game));
+                game.showMenu();
             }
         });
 
-        TextButton resetButton = new TextButton("Reset to Defaults", skin);
-        resetButton.getLabel().setFontScale(0.9f); // Scale down font to fit better
+        // Slightly smaller text to fit the longer label
+        TextButton resetButton = new TextButton("Reset to Defaults", game.getTextButtonStyle(skin, "default", TEXT_FONT_SIZE));
         resetButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 settings.resetToDefaults();
                 // Update UI to reflect defaults
-                playerNameField.setText(settings.getPlayerName());
-                soundVolumeSlider.setValue(settings.getSoundVolume());
-                updateSoundVolumeLabel(settings.getSoundVolume());
-                musicVolumeSlider.setValue(settings.getMusicVolume());
-                updateMusicVolumeLabel(settings.getMusicVolume());
-                game.updateMusicVolume();
-                difficultySelectBox.setSelected(settings.getDifficulty());
-                fullscreenCheckBox.setChecked(settings.isFullscreen());
-                showFpsCheckBox.setChecked(settings.isShowFps());
-
-                // Apply fullscreen change
-                if (settings.isFullscreen() != Gdx.graphics.isFullscreen()) {
-                    if (settings.isFullscreen()) {
-                        Gdx.graphics.setFullscreenMode(Gdx.graphics.getDisplayMode());
-                    } else {
-                        Gdx.graphics.setWindowedMode(1024, 768);
-                    }
-                }
+                refreshWidgets();
             }
         });
 
@@ -297,6 +292,21 @@ public class SettingsScreen extends ScreenAdapter {
         return table;
     }
 
+    /**
+     * Sets every widget to the current settings, e.g. after a reset or when the cached screen is shown again.
+     */
+    private void refreshWidgets() {
+        playerNameField.setText(settings.getPlayerName());
+        soundVolumeSlider.setValue(settings.getSoundVolume());
+        updateSoundVolumeLabel(settings.getSoundVolume());
+        musicVolumeSlider.setValue(settings.getMusicVolume());
+        updateMusicVolumeLabel(settings.getMusicVolume());
+        difficultySelectBox.setSelected(settings.getDifficulty());
+        fullscreenCheckBox.setChecked(settings.isFullscreen());
+        showFpsCheckBox.setChecked(settings.isShowFps());
+        showProfilerCheckBox.setChecked(settings.isShowProfiler());
+    }
+
     private void updateSoundVolumeLabel(float volume) {
         soundVolumeLabel.setText(String.format("%.0f%%", volume * 100));
     }
@@ -0,0 +1,277 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * All sound effects, packed into one file by the packSounds Gradle task.
+ * <p>
+ * The bank starts with an index of the effects (name, format and range of samples) and the path of the
+ * optional background music, followed by one deflated block with the samples of every effect. Samples
+ * are stored as per-channel deltas, zigzag-encoded and split into a plane of high bytes and one of low
+ * bytes, which compresses much better than interleaved PCM. The {@link Loader} reads the file once and
+ * decodes it into a single PCM buffer on the loading thread; each {@link Sound} is then created from its
+ * part of that buffer, without reading any other file, and the buffer is released.
+ */
+public class SoundBank implements Disposable {
+    public static final String PATH = "sounds/effects.bank";
+
+    // "RGSB"; keep the layout in sync with the packSounds task in build.gradle
+    private static final int MAGIC = 0x52475342;
+    private static final int VERSION = 1;
+    private static final int WAV_HEADER_SIZE = 44;
+
+    private static final class Effect {
+        private final String name;
+        private final int sampleRate;
+        private final int channels;
+        private final int offset;
+        private final int length;
+        private Sound sound;
+
+        private Effect(String name, int sampleRate, int channels, int offset, int length) {
+            this.name = name;
+            this.sampleRate = sampleRate;
+            this.channels = channels;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final Map<String, Effect> effects = new HashMap<>();
+    private final String musicPath;
+
+    private SoundBank(String musicPath, Array<Effect> effects) {
+        this.musicPath = musicPath;
+        for (Effect effect : effects) {
+            this.effects.put(effect.name, effect);
+        }
+    }
+
+    /**
+     * Path of the background music that was present when the bank was built, or null when there is none.
+     */
+    public String getMusicPath() {
+        return musicPath;
+    }
+
+    /**
+     * The effect packed from {@code sounds/<name>.wav}.
+     */
+    public Sound getSound(String name) {
+        return effect(name).sound;
+    }
+
+    /**
+     * Length of the effect in seconds.
+     */
+    public float getDuration(String name) {
+        Effect effect = effect(name);
+        return (float) effect.length / effect.channels / effect.sampleRate;
+    }
+
+    private Effect effect(String name) {
+        Effect effect = effects.get(name);
+        if (effect == null) throw new GdxRuntimeException("No sound effect in the bank: " + name);
+        return effect;
+    }
+
+    /**
+     * A bank whose sounds are not created yet, with the samples to create them from.
+     */
+    static final class Decoded {
+        final SoundBank bank;
+        // Little-endian 16-bit PCM of every effect; not kept once the sounds are created
+        final byte[] pcm;
+
+        private Decoded(SoundBank bank, byte[] pcm) {
+            this.bank = bank;
+            this.pcm = pcm;
+        }
+    }
+
+    /**
+     * Parses the index and decodes all samples.
+     */
+    static Decoded decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) throw new IOException("Not a sound bank");
+        int version = in.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Unsupported sound bank version " + version);
+        String music = in.readUTF();
+        int count = in.readInt();
+        Array<Effect> effects = new Array<>(count);
+        int totalSamples = 0;
+        for (int i = 0; i < count; i++) {
+            Effect effect = new Effect(in.readUTF(), in.readInt(), in.readUnsignedByte(), in.readInt(), in.readInt());
+            effects.add(effect);
+            totalSamples = Math.max(totalSamples, effect.offset + effect.length);
+        }
+
+        byte[] planes = new byte[totalSamples * 2];
+        int compressedLength = in.readInt();
+        int compressedOffset = bytes.length - in.available();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, compressedOffset, compressedLength);
+            int inflated = 0;
+            while (inflated < planes.length && !inflater.finished()) {
+                int n = inflater.inflate(planes, inflated, planes.length - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                inflated += n;
+            }
+            if (inflated != planes.length) throw new IOException("Truncated sound bank");
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt sound bank", e);
+        } finally {
+            inflater.end();
+        }
+
+        byte[] pcm = new byte[totalSamples * 2];
+        for (Effect effect : effects) {
+            decodeSamples(planes, pcm, effect);
+        }
+        return new Decoded(new SoundBank(music.isEmpty() ? null : music, effects), pcm);
+    }
+
+    // Reverses the encoding of encodeSamples in build.gradle for one effect
+    private static void decodeSamples(byte[] planes, byte[] pcm, Effect effect) {
+        int high = effect.offset * 2;
+        int low = high + effect.length;
+        int out = effect.offset * 2;
+        for (int i = 0; i < effect.length; i++) {
+            int zigzag = (planes[high + i] & 0xFF) << 8 | (planes[low + i] & 0xFF);
+            int delta = (zigzag >>> 1) ^ -(zigzag & 1);
+            int previous = i >= effect.channels
+                ? (short) ((pcm[out + 2 * (i - effect.channels)] & 0xFF) | pcm[out + 2 * (i - effect.channels) + 1] << 8)
+                : 0;
+            int sample = (short) (previous + delta);
+            pcm[out + 2 * i] = (byte) sample;
+            pcm[out + 2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    /**
+     * Creates the sounds. The audio backend only reads WAV from a file handle, so each effect is handed
+     * over as an in-memory WAV made of a generated header and its part of {@code pcm}. The sounds copy
+     * their samples, so the buffer can be dropped afterwards.
+     */
+    void createSounds(byte[] pcm) {
+        for (Effect effect : effects.values()) {
+            effect.sound = com.badlogic.gdx.Gdx.audio.newSound(new PcmFileHandle(effect, pcm));
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (Effect effect : effects.values()) {
+            if (effect.sound != null) effect.sound.dispose();
+            effect.sound = null;
+        }
+    }
+
+    private static final class PcmFileHandle extends FileHandle {
+        private final byte[] header;
+        private final byte[] pcm;
+        private final int offset;
+        private final int length;
+
+        PcmFileHandle(Effect effect, byte[] pcm) {
+            // The extension selects the WAV decoder
+            super(effect.name + ".wav");
+            this.pcm = pcm;
+            offset = effect.offset * 2;
+            length = effect.length * 2;
+            header = wavHeader(effect.sampleRate, effect.channels, length);
+        }
+
+        @Override
+        public InputStream read() {
+            return new SequenceInputStream(new ByteArrayInputStream(header), new ByteArrayInputStream(pcm, offset, length));
+        }
+
+        @Override
+        public long length() {
+            return header.length + length;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        private static byte[] wavHeader(int sampleRate, int channels, int dataLength) {
+            ByteBuffer header = ByteBuffer.allocate(WAV_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0x46464952); // "RIFF"
+            header.putInt(WAV_HEADER_SIZE - 8 + dataLength);
+            header.putInt(0x45564157); // "WAVE"
+            header.putInt(0x20746d66); // "fmt "
+            header.putInt(16);
+            header.putShort((short) 1); // PCM
+            header.putShort((short) channels);
+            header.putInt(sampleRate);
+            header.putInt(sampleRate * channels * 2);
+            header.putShort((short) (channels * 2));
+            header.putShort((short) 16);
+            header.putInt(0x61746164); // "data"
+            header.putInt(dataLength);
+            return header.array();
+        }
+    }
+
+    /**
+     * Loads a {@link SoundBank} through the {@link AssetManager}: the file is read and decoded off the
+     * render thread, and only the sounds are created on it.
+     */
+    public static class Loader extends AsynchronousAssetLoader<SoundBank, Loader.Parameters> {
+        private Decoded decoded;
+
+        public Loader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            try {
+                decoded = decode(file.readBytes());
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Could not read sound bank " + fileName, e);
+            }
+        }
+
+        @Override
+        public SoundBank loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            Decoded loaded = decoded;
+            decoded = null;
+            loaded.bank.createSounds(loaded.pcm);
+            return loaded.bank;
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+            return null;
+        }
+
+        public static class Parameters extends AssetLoaderParameters<SoundBank> {
+        }
+    }
+}
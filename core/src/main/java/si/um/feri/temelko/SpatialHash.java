@@ -0,0 +1,116 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * Uniform-grid broadphase over the live entities of one {@link EntityPool}.
+ * The grid is rebuilt every tick with a counting sort into flat int arrays, and {@link #query}
+ * returns only the entities whose cells intersect the query bounds, each at most once.
+ * Entities and queries outside the grid are clamped to its border cells, so nothing is missed.
+ * All buffers are reused between ticks and only grow when the entity count or world size does.
+ */
+public class SpatialHash {
+    private float cellSize = 64f;
+    private int columns, rows;
+    private EntityPool pool;
+
+    private int[] cellStart = new int[1];   // prefix sums, entries of cell c are [cellStart[c], cellStart[c + 1])
+    private int[] cellFill = new int[1];
+    private int[] entries = new int[64];    // entity indices grouped by cell
+    private int[] queryStamp = new int[64]; // per-entity id of the last query that returned it
+    private int stamp;
+
+    /**
+     * Cell size should be close to the size of the largest entity so each one spans at most four cells.
+     */
+    public void setCellSize(float cellSize) {
+        this.cellSize = Math.max(1f, cellSize);
+    }
+
+    /**
+     * Rebuilds the grid from the live entities of {@code pool} for a world of the given size.
+     */
+    public void build(EntityPool pool, float worldWidth, float worldHeight) {
+        this.pool = pool;
+        columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        // One extra row above the world for entities that have just spawned at the top edge
+        rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize)) + 1;
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+            cellFill = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+        }
+        if (queryStamp.length < pool.size()) {
+            queryStamp = new int[Math.max(pool.size(), queryStamp.length * 2)];
+            stamp = 0;
+        }
+
+        // Count the entries per cell, shifted by one so the prefix sum yields start offsets
+        int total = 0;
+        for (int i = 0, n = pool.size(); i < n; i++) {
+            if (!pool.isAlive(i)) continue;
+            int minColumn = column(pool.getX(i)), maxColumn = column(pool.getX(i) + pool.getWidth(i));
+            int minRow = row(pool.getY(i)), maxRow = row(pool.getY(i) + pool.getHeight(i));
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    cellStart[r * columns + c + 1]++;
+                    total++;
+                }
+            }
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+        if (entries.length < total) entries = new int[Math.max(total, entries.length * 2)];
+
+        System.arraycopy(cellStart, 0, cellFill, 0, cells);
+        for (int i = 0, n = pool.size(); i < n; i++) {
+            if (!pool.isAlive(i)) continue;
+            int minColumn = column(pool.getX(i)), maxColumn = column(pool.getX(i) + pool.getWidth(i));
+            int minRow = row(pool.getY(i)), maxRow = row(pool.getY(i) + pool.getHeight(i));
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    entries[cellFill[r * columns + c]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects into {@code out} (cleared first) the indices of live entities near the given bounds.
+     * Candidates still need an exact overlap test. Returns the number of candidates.
+     */
+    public int query(float x, float y, float width, float height, IntArray out) {
+        out.clear();
+        if (pool == null) return 0;
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(queryStamp, 0);
+            stamp = 1;
+        }
+        int minColumn = column(x), maxColumn = column(x + width);
+        int minRow = row(y), maxRow = row(y + height);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                for (int e = cellStart[cell], end = cellStart[cell + 1]; e < end; e++) {
+                    int index = entries[e];
+                    if (queryStamp[index] == stamp || !pool.isAlive(index)) continue;
+                    queryStamp[index] = stamp;
+                    out.add(index);
+                }
+            }
+        }
+        return out.size;
+    }
+
+    private int column(float x) {
+        int column = (int) Math.floor(x / cellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(float y) {
+        int row = (int) Math.floor(y / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+}
@@ -0,0 +1,131 @@
+package si.um.feri.temelko;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Vertical list of fixed-height rows for use inside a {@link com.badlogic.gdx.scenes.scene2d.ui.ScrollPane}.
+ * Only the rows in the visible area, plus {@link #BUFFER_ROWS} on each side, exist as actors. They come
+ * from a pool and are bound to a new index by the {@link Adapter} as the pane scrolls, so the cost of
+ * showing a list does not depend on how many items it has.
+ * <p>
+ * The scroll pane passes its visible area through {@link Cullable#setCullingArea(Rectangle)} whenever it
+ * scrolls; that is where rows are recycled.
+ */
+public class VirtualList<A extends Actor> extends WidgetGroup implements Cullable {
+    private static final int BUFFER_ROWS = 2;
+
+    /**
+     * Supplies the items of a {@link VirtualList}.
+     */
+    public interface Adapter<A extends Actor> {
+        int getCount();
+
+        /** Creates an empty row; called only until the pool covers the visible area. */
+        A createRow();
+
+        /** Shows item {@code index} in {@code row}, which may have shown any other item before. */
+        void bindRow(A row, int index);
+    }
+
+    private final Adapter<A> adapter;
+    private final float rowHeight;
+    private final Array<A> freeRows = new Array<>();
+    // Rows bound to items firstIndex.., in order
+    private Array<A> rows = new Array<>();
+    private Array<A> spareRows = new Array<>();
+    private int firstIndex;
+    private int count;
+    private Rectangle cullingArea;
+    private boolean rebindAll;
+
+    public VirtualList(Adapter<A> adapter, float rowHeight) {
+        this.adapter = adapter;
+        this.rowHeight = rowHeight;
+        count = adapter.getCount();
+    }
+
+    /**
+     * Re-reads the item count and rebinds every visible row, e.g. after the data changed.
+     */
+    public void refresh() {
+        count = adapter.getCount();
+        rebindAll = true;
+        invalidateHierarchy();
+        updateRows();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public float getPrefHeight() {
+        return count * rowHeight;
+    }
+
+    @Override
+    public void setCullingArea(Rectangle cullingArea) {
+        this.cullingArea = cullingArea;
+        updateRows();
+    }
+
+    @Override
+    public void layout() {
+        updateRows();
+    }
+
+    private void updateRows() {
+        // Items run top to bottom, while y grows upwards
+        float height = getHeight();
+        float visibleTop;
+        float visibleBottom;
+        if (cullingArea != null) {
+            visibleTop = cullingArea.y + cullingArea.height;
+            visibleBottom = cullingArea.y;
+        } else {
+            // Not scrolled yet (the first layout comes before the culling area): assume the top of the
+            // list fills the parent, rather than binding a row for every item
+            visibleTop = height;
+            visibleBottom = height - (getParent() != null ? getParent().getHeight() : 0f);
+        }
+        int first = Math.max(0, (int) ((height - visibleTop) / rowHeight) - BUFFER_ROWS);
+        int last = Math.min(count - 1, (int) Math.ceil((height - visibleBottom) / rowHeight) - 1 + BUFFER_ROWS);
+
+        // Keep the rows still in range and return the others to the pool
+        Array<A> next = spareRows;
+        next.clear();
+        for (int index = first; index <= last; index++) next.add(null);
+        for (int i = 0; i < rows.size; i++) {
+            int index = firstIndex + i;
+            A row = rows.get(i);
+            if (!rebindAll && index >= first && index <= last) {
+                next.set(index - first, row);
+            } else {
+                removeActor(row);
+                freeRows.add(row);
+            }
+        }
+        for (int i = 0; i < next.size; i++) {
+            A row = next.get(i);
+            if (row == null) {
+                row = freeRows.size > 0 ? freeRows.pop() : adapter.createRow();
+                adapter.bindRow(row, first + i);
+                addActor(row);
+                next.set(i, row);
+            }
+            row.setBounds(0, height - (first + i + 1) * rowHeight, getWidth(), rowHeight);
+        }
+
+        // The pool only has to cover rows scrolled out and back in, not a larger area shown before
+        if (freeRows.size > next.size) freeRows.truncate(next.size);
+
+        spareRows = rows;
+        rows = next;
+        firstIndex = first;
+        rebindAll = false;
+    }
+}
@@ -0,0 +1,106 @@
+package si.um.feri.temelko;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ReplayTest {
+    private static final long SEED = 12345L;
+    // Two minutes of play at most; the scripted input usually crashes out well before
+    private static final int MAX_TICKS = (int) (120f / RoadSimulation.FIXED_TICK);
+    // Score, entity counts and car position after each tick
+    private static final int STATE_SIZE = 6;
+
+    private static int[] state(RoadSimulation simulation) {
+        return new int[] {
+            simulation.getScore(),
+            simulation.getObstacles().size(),
+            simulation.getFuels().size(),
+            simulation.getPowerUps().size(),
+            simulation.getBullets().size(),
+            Float.floatToIntBits(simulation.getCar().x)
+        };
+    }
+
+    @Test
+    void playbackReproducesTheRecordedRun() throws IOException {
+        RoadSimulation recorded = new RoadSimulation();
+        recorded.reset(GameSettings.Difficulty.HARD, SEED);
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(recorded, RoadSimulation.FIXED_TICK);
+
+        // Input changes every few ticks, like a player holding and releasing keys
+        Random input = new Random(7);
+        int[] states = new int[MAX_TICKS * STATE_SIZE];
+        int ticks = 0;
+        int mask = 0;
+        while (ticks < MAX_TICKS && !recorded.isGameOver()) {
+            if (input.nextInt(20) == 0) mask = input.nextInt(8);
+            recorded.getInput().setMask(mask);
+            recorder.record(recorded.getInput());
+            recorded.step(RoadSimulation.FIXED_TICK);
+            System.arraycopy(state(recorded), 0, states, ticks * STATE_SIZE, STATE_SIZE);
+            ticks++;
+        }
+        recorder.end(recorded.getScore());
+        byte[] replay = recorder.toByteArray();
+        assertEquals(ticks, recorder.getTickCount());
+        assertTrue(recorded.getScore() > 0, "the scripted run should score");
+
+        RoadSimulation played = new RoadSimulation();
+        // A different configuration, which start() must replace with the recorded one
+        played.setWorldSize(640f, 480f);
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.start(played);
+        assertEquals(SEED, player.getSeed());
+        assertEquals(GameSettings.Difficulty.HARD, player.getDifficulty());
+        while (player.step(played)) {
+            int tick = player.getTickIndex() - 1;
+            int[] expected = new int[STATE_SIZE];
+            System.arraycopy(states, tick * STATE_SIZE, expected, 0, STATE_SIZE);
+            assertArrayEquals(expected, state(played));
+        }
+
+        assertTrue(player.isFinished());
+        assertEquals(ticks, player.getTickIndex());
+        assertEquals(recorded.isGameOver(), played.isGameOver());
+        assertEquals(recorded.getScore(), played.getScore());
+        assertEquals(recorded.getScore(), player.getExpectedScore());
+        assertEquals(recorded.getCurrentHealth(), played.getCurrentHealth());
+    }
+
+    @Test
+    void restartPlaysTheSameRunAgain() throws IOException {
+        RoadSimulation recorded = new RoadSimulation();
+        recorded.reset(GameSettings.Difficulty.NORMAL, SEED);
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(recorded, RoadSimulation.FIXED_TICK);
+        for (int i = 0; i < 600; i++) {
+            recorded.getInput().setMask(i / 60 % 2 == 0 ? RoadSimulation.InputState.LEFT | RoadSimulation.InputState.SHOOT
+                : RoadSimulation.InputState.RIGHT);
+            recorder.record(recorded.getInput());
+            recorded.step(RoadSimulation.FIXED_TICK);
+        }
+        recorder.end(recorded.getScore());
+        byte[] replay = recorder.toByteArray();
+        // Ten runs of 60 ticks: a mask byte and a one-byte count each
+        assertTrue(replay.length < 100, "replay is " + replay.length + " bytes");
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        RoadSimulation played = new RoadSimulation();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            player.start(played);
+            while (player.step(played)) {
+                // Plays every recorded tick
+            }
+            assertEquals(600, player.getTickIndex());
+            assertArrayEquals(state(recorded), state(played));
+            assertFalse(player.step(played));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package si.um.feri.temelko;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.badlogic.gdx.utils.Array;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class ScoreBoardTest {
+    private static final GameSettings.Difficulty NORMAL = GameSettings.Difficulty.NORMAL;
+
+    private static boolean add(ScoreBoard board, long period, String name, int score, long time) {
+        return board.add(period, name.toLowerCase(), name, score, NORMAL, time);
+    }
+
+    private static void assertEntries(ScoreBoard board, long period, String... expected) {
+        Array<ScoreBoard.Entry> entries = board.getEntries(period);
+        StringBuilder actual = new StringBuilder();
+        for (ScoreBoard.Entry entry : entries) {
+            if (actual.length() > 0) actual.append(' ');
+            actual.append(entry.getName()).append('=').append(entry.getScore());
+        }
+        assertEquals(String.join(" ", expected), actual.toString());
+    }
+
+    @Test
+    void keepsOneBestRunPerPlayer() {
+        ScoreBoard board = new ScoreBoard(ScoreBoard.Window.ALL_TIME, 3);
+        assertTrue(add(board, 0, "Anna", 100, 1));
+        assertFalse(add(board, 0, "Anna", 80, 2));
+        assertFalse(add(board, 0, "ANNA", 100, 3));
+        assertTrue(add(board, 0, "anna", 120, 4));
+        assertEquals(1, board.size());
+        assertEntries(board, 0, "Anna=120");
+    }
+
+    @Test
+    void fullBoardEvictsTheWeakestPlayer() {
+        ScoreBoard board = new ScoreBoard(ScoreBoard.Window.ALL_TIME, 3);
+        add(board, 0, "Anna", 300, 1);
+        add(board, 0, "Bob", 100, 2);
+        add(board, 0, "Cid", 200, 3);
+        // Below the weakest entry, or equal to it but later: not on the board
+        assertFalse(add(board, 0, "Dan", 50, 4));
+        assertFalse(add(board, 0, "Eve", 100, 5));
+        assertEntries(board, 0, "Anna=300", "Cid=200", "Bob=100");
+
+        assertTrue(add(board, 0, "Dan", 250, 6));
+        assertEntries(board, 0, "Anna=300", "Dan=250", "Cid=200");
+        // The evicted player comes back as a new entry
+        assertTrue(add(board, 0, "Bob", 400, 7));
+        assertEntries(board, 0, "Bob=400", "Anna=300", "Dan=250");
+        assertEquals(3, board.size());
+    }
+
+    @Test
+    void improvedEntryMovesUp() {
+        ScoreBoard board = new ScoreBoard(ScoreBoard.Window.ALL_TIME, 10);
+        for (int i = 0; i < 10; i++) add(board, 0, "Player" + i, i * 10, i);
+        assertTrue(add(board, 0, "Player0", 95, 20));
+        Array<ScoreBoard.Entry> entries = board.getEntries(0);
+        assertEquals("Player0", entries.get(0).getName());
+        for (int i = 1; i < entries.size; i++) {
+            assertTrue(entries.get(i - 1).getScore() > entries.get(i).getScore());
+        }
+    }
+
+    @Test
+    void newPeriodEmptiesTheBoard() {
+        ScoreBoard board = new ScoreBoard(ScoreBoard.Window.TODAY, 3);
+        add(board, 5, "Anna", 300, 1);
+        add(board, 5, "Bob", 100, 2);
+
+        // A run from a later day starts a new board; one from an earlier day is ignored
+        assertTrue(add(board, 6, "Cid", 50, 3));
+        assertEquals(6, board.getPeriod());
+        assertFalse(add(board, 5, "Anna", 500, 4));
+        assertEntries(board, 6, "Cid=50");
+
+        // Reading on a later day empties it too, without waiting for a run
+        assertEntries(board, 7);
+        assertEquals(7, board.getPeriod());
+        assertEquals(0, board.size());
+    }
+
+    @Test
+    void periodsFollowTheCalendar() {
+        ZoneId zone = ZoneOffset.UTC;
+        // 2024-05-15 is a Wednesday; its week starts on Monday 2024-05-13
+        long wednesday = LocalDate.of(2024, 5, 15).atTime(23, 59).toInstant(ZoneOffset.UTC).toEpochMilli();
+        long nextDay = LocalDate.of(2024, 5, 16).atStartOfDay(zone).toInstant().toEpochMilli();
+        long nextMonday = LocalDate.of(2024, 5, 20).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        assertEquals(LocalDate.of(2024, 5, 15).toEpochDay(), ScoreBoard.Window.TODAY.periodOf(wednesday, zone));
+        assertEquals(ScoreBoard.Window.TODAY.periodOf(wednesday, zone) + 1, ScoreBoard.Window.TODAY.periodOf(nextDay, zone));
+        assertEquals(LocalDate.of(2024, 5, 13).toEpochDay(), ScoreBoard.Window.THIS_WEEK.periodOf(wednesday, zone));
+        assertEquals(ScoreBoard.Window.THIS_WEEK.periodOf(wednesday, zone), ScoreBoard.Window.THIS_WEEK.periodOf(nextDay, zone));
+        assertEquals(LocalDate.of(2024, 5, 20).toEpochDay(), ScoreBoard.Window.THIS_WEEK.periodOf(nextMonday, zone));
+        assertEquals(0, ScoreBoard.Window.ALL_TIME.periodOf(nextMonday, zone));
+    }
+}
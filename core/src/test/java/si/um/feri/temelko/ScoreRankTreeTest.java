@@ -0,0 +1,91 @@
+package si.um.feri.temelko;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ScoreRankTreeTest {
+    private static ScoreStore.PlayerRecord player(String name, int score, long time) {
+        ScoreStore.PlayerRecord player = new ScoreStore.PlayerRecord(name.toLowerCase(), name);
+        player.setBest(score, GameSettings.Difficulty.NORMAL, time);
+        return player;
+    }
+
+    private static void assertRanks(ScoreRankTree tree, List<ScoreStore.PlayerRecord> expected) {
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), tree.select(i + 1), "select " + (i + 1));
+            assertEquals(i + 1, tree.rankOf(expected.get(i)), expected.get(i).getName());
+        }
+        assertNull(tree.select(expected.size() + 1));
+        assertNull(tree.select(0));
+    }
+
+    @Test
+    void ranksFollowScoreOrder() {
+        List<ScoreStore.PlayerRecord> players = new ArrayList<>();
+        for (int i = 0; i < 500; i++) players.add(player("Player" + i, i * 7, 0));
+        Collections.shuffle(players, new Random(42));
+        ScoreRankTree tree = new ScoreRankTree();
+        for (ScoreStore.PlayerRecord player : players) tree.insert(player);
+
+        players.sort(ScoreRankTree::compare);
+        assertEquals(3493, players.get(0).getBestScore());
+        assertRanks(tree, players);
+    }
+
+    @Test
+    void tiesRankEarlierRunsThenNamesFirst() {
+        ScoreStore.PlayerRecord late = player("Anna", 100, 2000);
+        ScoreStore.PlayerRecord early = player("Zoe", 100, 1000);
+        ScoreStore.PlayerRecord sameTimeB = player("Bob", 100, 3000);
+        ScoreStore.PlayerRecord sameTimeA = player("Amy", 100, 3000);
+        ScoreRankTree tree = new ScoreRankTree();
+        tree.insert(sameTimeB);
+        tree.insert(late);
+        tree.insert(sameTimeA);
+        tree.insert(early);
+
+        assertRanks(tree, List.of(early, late, sameTimeA, sameTimeB));
+    }
+
+    @Test
+    void removeAndReinsertUpdateRanks() {
+        List<ScoreStore.PlayerRecord> players = new ArrayList<>();
+        ScoreRankTree tree = new ScoreRankTree();
+        for (int i = 0; i < 100; i++) {
+            ScoreStore.PlayerRecord player = player("Player" + i, i, 0);
+            players.add(player);
+            tree.insert(player);
+        }
+        // Remove every other player, and move the weakest one to the top
+        for (int i = 1; i < 100; i += 2) tree.remove(players.get(i));
+        ScoreStore.PlayerRecord weakest = players.get(0);
+        tree.remove(weakest);
+        weakest.setBest(1000, GameSettings.Difficulty.HARD, 0);
+        tree.insert(weakest);
+
+        List<ScoreStore.PlayerRecord> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i += 2) expected.add(players.get(i));
+        expected.sort(ScoreRankTree::compare);
+        assertSame(weakest, expected.get(0));
+        assertRanks(tree, expected);
+        assertThrows(IllegalArgumentException.class, () -> tree.rankOf(players.get(1)));
+    }
+
+    @Test
+    void clearEmptiesTheTree() {
+        ScoreRankTree tree = new ScoreRankTree();
+        tree.insert(player("Anna", 1, 0));
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertNull(tree.select(1));
+    }
+}
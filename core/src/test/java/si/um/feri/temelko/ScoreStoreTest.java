@@ -0,0 +1,161 @@
+package si.um.feri.temelko;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.badlogic.gdx.utils.Array;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScoreStoreTest {
+    private static final int BOARD_SIZE = 10;
+    private static final long TIME = 1_700_000_000_000L;
+
+    @TempDir
+    File directory;
+
+    private PersistenceWriter writer;
+    // Best score and run count per player, as the store should report them
+    private final Map<String, int[]> expected = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        writer = new PersistenceWriter(new MetricsRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.close();
+    }
+
+    private ScoreStore open() throws IOException {
+        return new ScoreStore(new File(directory, "scores.log"), new File(directory, "scores.idx"), writer, BOARD_SIZE);
+    }
+
+    private void addRun(ScoreStore store, String name, int score) {
+        store.addRun(name, score, GameSettings.Difficulty.NORMAL, TIME);
+        int[] best = expected.computeIfAbsent(name, key -> new int[] {Integer.MIN_VALUE, 0});
+        best[0] = Math.max(best[0], score);
+        best[1]++;
+    }
+
+    /**
+     * Simulates a crash: whatever the writer was handed reaches the disk, but the store is never closed.
+     */
+    private void drop() {
+        writer.flush();
+    }
+
+    private void assertMatchesExpected(ScoreStore store) {
+        List<Map.Entry<String, int[]>> ranked = new ArrayList<>(expected.entrySet());
+        ranked.sort((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]));
+        assertEquals(expected.size(), store.getPlayerCount());
+        for (int i = 0; i < ranked.size(); i++) {
+            String name = ranked.get(i).getKey();
+            ScoreStore.PlayerRecord player = store.getPlayer(name);
+            assertNotNull(player, name);
+            assertEquals(ranked.get(i).getValue()[0], player.getBestScore(), name + " best score");
+            assertEquals(ranked.get(i).getValue()[1], player.getRuns(), name + " runs");
+            assertEquals(i + 1, store.getRank(name), name + " rank");
+        }
+    }
+
+    @Test
+    void reopensAfterCleanShutdown() throws IOException {
+        ScoreStore store = open();
+        for (int i = 0; i < 300; i++) addRun(store, "Player" + (i % 25), i * 3 + i % 25);
+        store.close();
+        writer.flush();
+        assertTrue(new File(directory, "scores.idx").exists());
+
+        ScoreStore reopened = open();
+        assertEquals(300, reopened.getRunCount());
+        assertMatchesExpected(reopened);
+        Array<ScoreBoard.Entry> board = reopened.getBoard(null, ScoreBoard.Window.ALL_TIME);
+        assertEquals(BOARD_SIZE, board.size);
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            assertEquals(reopened.getPlayerAtRank(i + 1).getName(), board.get(i).getName());
+        }
+        reopened.close();
+    }
+
+    @Test
+    void reopensAfterUncleanShutdownBeforeAnyCheckpoint() throws IOException {
+        ScoreStore store = open();
+        for (int i = 0; i < 20; i++) addRun(store, "Player" + (i % 4), i);
+        drop();
+        assertFalse(new File(directory, "scores.idx").exists());
+
+        // Everything comes back from the log alone
+        ScoreStore reopened = open();
+        assertEquals(20, reopened.getRunCount());
+        assertMatchesExpected(reopened);
+        reopened.close();
+    }
+
+    @Test
+    void reopensFromIndexDeltaAndLogTail() throws IOException {
+        ScoreStore store = open();
+        for (int i = 0; i < 100; i++) addRun(store, "Player" + (i % 10), i);
+        store.close();
+        writer.flush();
+
+        // A delta on top of the full index, then runs that only the log has
+        ScoreStore second = open();
+        for (int i = 0; i < ScoreStore.CHECKPOINT_INTERVAL + 40; i++) addRun(second, "Other" + (i % 7), 1000 + i);
+        drop();
+
+        ScoreStore third = open();
+        assertEquals(100 + ScoreStore.CHECKPOINT_INTERVAL + 40, third.getRunCount());
+        assertMatchesExpected(third);
+        third.close();
+    }
+
+    @Test
+    void clearSurvivesReopen() throws IOException {
+        ScoreStore store = open();
+        for (int i = 0; i < ScoreStore.CHECKPOINT_INTERVAL + 10; i++) addRun(store, "Player" + (i % 5), i);
+        store.clear();
+        expected.clear();
+        addRun(store, "Anna", 42);
+        drop();
+
+        ScoreStore reopened = open();
+        assertEquals(1, reopened.getRunCount());
+        assertMatchesExpected(reopened);
+        reopened.close();
+    }
+
+    @Test
+    void deltaPlayersSurviveASecondUncleanShutdown() throws IOException {
+        // Every player's scores are distinct, so the expected ranking has no ties
+        ScoreStore first = open();
+        for (int i = 0; i < ScoreStore.CHECKPOINT_INTERVAL; i++) {
+            addRun(first, "Player" + (i % 10), i * 10 + i % 10);
+        }
+        drop();
+
+        // Only one player plays after the restart, so the next delta must still carry the others
+        ScoreStore second = open();
+        assertMatchesExpected(second);
+        for (int i = 0; i < ScoreStore.CHECKPOINT_INTERVAL; i++) {
+            addRun(second, "Player0", 5000 + i * 10);
+        }
+        drop();
+
+        ScoreStore third = open();
+        assertEquals(2L * ScoreStore.CHECKPOINT_INTERVAL, third.getRunCount());
+        assertMatchesExpected(third);
+        third.close();
+    }
+}
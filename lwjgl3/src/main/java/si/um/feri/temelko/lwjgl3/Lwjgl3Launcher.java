@@ -2,6 +2,8 @@ package si.um.feri.temelko.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import java.io.File;
+import si.um.feri.temelko.MetricsRegistry;
 import si.um.feri.temelko.RoadGame;
 
 /** Launches the desktop (LWJGL3) application. */
@@ -12,7 +14,22 @@ public class Lwjgl3Launcher {
     }
 
     private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new RoadGame(), getDefaultConfiguration());
+        MetricsRegistry metrics = new MetricsRegistry();
+        startMetricsExport(metrics);
+        return new Lwjgl3Application(new RoadGame(metrics), getDefaultConfiguration());
+    }
+
+    /**
+     * Publishes the game's metrics as a JMX bean, and also to a rolling CSV file when started with
+     * {@code -Droadgame.metrics.csv=<file>} (every {@code -Droadgame.metrics.interval} seconds, default 10).
+     */
+    private static void startMetricsExport(MetricsRegistry metrics) {
+        MetricsMBean.register(metrics);
+        String csvPath = System.getProperty("roadgame.metrics.csv");
+        if (csvPath != null && !csvPath.isEmpty()) {
+            int interval = Math.max(1, Integer.getInteger("roadgame.metrics.interval", 10));
+            new MetricsCsvWriter(metrics, new File(csvPath)).start(interval);
+        }
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
@@ -0,0 +1,129 @@
+package si.um.feri.temelko.lwjgl3;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import si.um.feri.temelko.MetricsRegistry;
+
+/**
+ * Appends one row of a {@link MetricsRegistry} to a CSV file every interval, on a daemon thread.
+ * Counters and gauges are written as their current values; histograms are written as count, mean,
+ * p50, p95 and p99 of the values recorded during that interval only, so a short stutter shows up
+ * in its own row. When the file grows past its size limit, or new metrics are registered and the
+ * columns change, it is rolled to {@code name.1} (older files shift up to {@code name.N}).
+ */
+public class MetricsCsvWriter {
+    private static final long MAX_FILE_BYTES = 1024 * 1024;
+    private static final int KEPT_FILES = 3;
+
+    private final MetricsRegistry metrics;
+    private final File file;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-csv");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<MetricsRegistry.Histogram, long[]> previousCounts = new HashMap<>();
+    private final Map<MetricsRegistry.Histogram, Double> previousSums = new HashMap<>();
+    private int columnsForSize = -1;
+
+    public MetricsCsvWriter(MetricsRegistry metrics, File file) {
+        this.metrics = metrics;
+        this.file = file;
+    }
+
+    public void start(int intervalSeconds) {
+        executor.scheduleAtFixedRate(this::writeRowSafely, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        executor.shutdown();
+    }
+
+    private void writeRowSafely() {
+        try {
+            writeRow();
+        } catch (IOException | RuntimeException e) {
+            // Keep the game running; try again on the next interval
+            System.err.println("Could not write metrics to " + file + ": " + e);
+        }
+    }
+
+    private void writeRow() throws IOException {
+        boolean newColumns = columnsForSize != metrics.size();
+        if (file.exists() && (newColumns || file.length() > MAX_FILE_BYTES)) roll();
+        boolean writeHeader = !file.exists();
+        if (newColumns) columnsForSize = metrics.size();
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (writeHeader) {
+                StringBuilder header = new StringBuilder("time");
+                for (MetricsRegistry.Counter counter : metrics.getCounters()) header.append(',').append(counter.getName());
+                for (MetricsRegistry.Gauge gauge : metrics.getGauges()) header.append(',').append(gauge.getName());
+                for (MetricsRegistry.Histogram histogram : metrics.getHistograms()) {
+                    String name = histogram.getName();
+                    header.append(',').append(name).append(".count,").append(name).append(".mean,")
+                        .append(name).append(".p50,").append(name).append(".p95,").append(name).append(".p99");
+                }
+                out.write(header.append('\n').toString());
+            }
+
+            StringBuilder row = new StringBuilder(Instant.now().toString());
+            for (MetricsRegistry.Counter counter : metrics.getCounters()) row.append(',').append(counter.get());
+            for (MetricsRegistry.Gauge gauge : metrics.getGauges()) row.append(',').append(format(gauge.get()));
+            for (MetricsRegistry.Histogram histogram : metrics.getHistograms()) appendInterval(row, histogram);
+            out.write(row.append('\n').toString());
+        }
+    }
+
+    private void appendInterval(StringBuilder row, MetricsRegistry.Histogram histogram) {
+        long[] current = new long[histogram.getBucketCount()];
+        double sum = histogram.getSum();
+        histogram.copyCounts(current);
+        long[] previous = previousCounts.get(histogram);
+        long[] interval = current.clone();
+        long count = 0;
+        for (int i = 0; i < interval.length; i++) {
+            if (previous != null) interval[i] -= previous[i];
+            count += interval[i];
+        }
+        double intervalSum = sum - previousSums.getOrDefault(histogram, 0.0);
+        previousCounts.put(histogram, current);
+        previousSums.put(histogram, sum);
+
+        row.append(',').append(count)
+            .append(',').append(format(count == 0 ? 0.0 : intervalSum / count))
+            .append(',').append(format(histogram.percentile(interval, 50)))
+            .append(',').append(format(histogram.percentile(interval, 95)))
+            .append(',').append(format(histogram.percentile(interval, 99)));
+    }
+
+    private void roll() throws IOException {
+        for (int i = KEPT_FILES - 1; i >= 1; i--) {
+            File older = new File(file.getPath() + "." + i);
+            if (older.exists()) {
+                Files.move(older.toPath(), new File(file.getPath() + "." + (i + 1)).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file.toPath(), new File(file.getPath() + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,124 @@
+package si.um.feri.temelko.lwjgl3;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import si.um.feri.temelko.MetricsRegistry;
+
+/**
+ * Exposes a {@link MetricsRegistry} as a read-only JMX bean ({@code si.um.feri.temelko:type=Metrics}),
+ * so JConsole or VisualVM can watch a running game. Counters and gauges are plain attributes;
+ * each histogram adds {@code .count}, {@code .mean}, {@code .p50}, {@code .p95}, {@code .p99} and
+ * {@code .max} attributes. The attribute list is rebuilt whenever new metrics have been registered.
+ */
+public class MetricsMBean implements DynamicMBean {
+    private static final String OBJECT_NAME = "si.um.feri.temelko:type=Metrics";
+    private static final String[] HISTOGRAM_SUFFIXES = {".count", ".mean", ".p50", ".p95", ".p99", ".max"};
+
+    private final MetricsRegistry metrics;
+    private MBeanInfo info;
+    private int infoSize = -1;
+
+    public MetricsMBean(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Registers the bean with the platform MBean server; failures are reported and otherwise ignored.
+     */
+    public static void register(MetricsRegistry metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(metrics), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Could not register metrics MBean: " + e);
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        for (MetricsRegistry.Counter counter : metrics.getCounters()) {
+            if (counter.getName().equals(attribute)) return counter.get();
+        }
+        for (MetricsRegistry.Gauge gauge : metrics.getGauges()) {
+            if (gauge.getName().equals(attribute)) return gauge.get();
+        }
+        for (MetricsRegistry.Histogram histogram : metrics.getHistograms()) {
+            String name = histogram.getName();
+            if (!attribute.startsWith(name) || attribute.length() == name.length()) continue;
+            switch (attribute.substring(name.length())) {
+                case ".count": return histogram.getCount();
+                case ".mean": return histogram.getMean();
+                case ".p50": return histogram.getPercentile(50);
+                case ".p95": return histogram.getPercentile(95);
+                case ".p99": return histogram.getPercentile(99);
+                case ".max": return histogram.getMax();
+                default: break;
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Skipped, as the DynamicMBean contract allows
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException(actionName);
+    }
+
+    @Override
+    public synchronized MBeanInfo getMBeanInfo() {
+        if (info == null || infoSize != metrics.size()) {
+            infoSize = metrics.size();
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (MetricsRegistry.Counter counter : metrics.getCounters()) {
+                attributes.add(attribute(counter.getName(), "long", "Counter"));
+            }
+            for (MetricsRegistry.Gauge gauge : metrics.getGauges()) {
+                attributes.add(attribute(gauge.getName(), "double", "Gauge"));
+            }
+            for (MetricsRegistry.Histogram histogram : metrics.getHistograms()) {
+                for (String suffix : HISTOGRAM_SUFFIXES) {
+                    String type = suffix.equals(".count") ? "long" : "double";
+                    attributes.add(attribute(histogram.getName() + suffix, type, "Histogram (milliseconds for times)"));
+                }
+            }
+            info = new MBeanInfo(getClass().getName(), "Road game runtime metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+        }
+        return info;
+    }
+
+    private static MBeanAttributeInfo attribute(String name, String type, String description) {
+        return new MBeanAttributeInfo(name, type, description, true, false, false);
+    }
+}
@@ -0,0 +1,79 @@
+package si.um.feri.temelko.soak;
+
+import com.badlogic.gdx.math.Rectangle;
+import si.um.feri.temelko.EntityPool;
+import si.um.feri.temelko.RoadSimulation;
+import java.util.Random;
+
+/**
+ * Scripted player: dodges the closest obstacle heading for the car, shoots obstacles in its lane
+ * and otherwise steers towards the nearest fuel or power-up. A seeded amount of hesitation keeps
+ * sessions from all playing the same way. Reads the simulation directly and never allocates.
+ */
+final class BotPolicy {
+    // How far above the car obstacles are considered a threat
+    private static final float DODGE_HORIZON = 320f;
+    // How far above the car pickups are worth steering for
+    private static final float COLLECT_HORIZON = 600f;
+    // Chance per tick of ignoring the plan, so runs eventually crash and restart
+    private static final float HESITATION = 0.15f;
+
+    private final Random random;
+
+    BotPolicy(long seed) {
+        random = new Random(seed);
+    }
+
+    void decide(RoadSimulation simulation, RoadSimulation.InputState input) {
+        input.clear();
+        if (random.nextFloat() < HESITATION) return;
+
+        Rectangle car = simulation.getCar();
+        float carCenter = car.x + car.width / 2f;
+        float carTop = car.y + car.height;
+
+        // Closest obstacle overlapping the car's lane
+        EntityPool obstacles = simulation.getObstacles();
+        int threat = -1;
+        float threatDistance = Float.MAX_VALUE;
+        for (int i = 0, n = obstacles.size(); i < n; i++) {
+            float x = obstacles.getX(i);
+            if (x + obstacles.getWidth(i) < car.x || x > car.x + car.width) continue;
+            float distance = obstacles.getY(i) - carTop;
+            if (distance < -car.height || distance >= threatDistance) continue;
+            threat = i;
+            threatDistance = distance;
+        }
+
+        if (threat >= 0) {
+            input.shoot = true;
+            if (threatDistance < DODGE_HORIZON) {
+                // Move to the side with more room around the obstacle
+                float obstacleCenter = obstacles.getX(threat) + obstacles.getWidth(threat) / 2f;
+                boolean goLeft = carCenter < obstacleCenter;
+                if (goLeft && car.x <= 0f) goLeft = false;
+                if (!goLeft && car.x + car.width >= simulation.getWorldWidth()) goLeft = true;
+                input.left = goLeft;
+                input.right = !goLeft;
+                return;
+            }
+        }
+
+        float target = nearestPickup(simulation.getPowerUps(), carTop, carCenter, Float.NaN);
+        target = nearestPickup(simulation.getFuels(), carTop, carCenter, target);
+        if (!Float.isNaN(target)) {
+            input.left = target < carCenter - 10f;
+            input.right = target > carCenter + 10f;
+        }
+    }
+
+    private static float nearestPickup(EntityPool pickups, float carTop, float carCenter, float best) {
+        for (int i = 0, n = pickups.size(); i < n; i++) {
+            float distance = pickups.getY(i) - carTop;
+            if (distance < 0f || distance > COLLECT_HORIZON) continue;
+            float center = pickups.getX(i) + pickups.getWidth(i) / 2f;
+            if (Float.isNaN(best) || Math.abs(center - carCenter) < Math.abs(best - carCenter)) best = center;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,66 @@
+package si.um.feri.temelko.soak;
+
+/**
+ * Fixed-size log-linear histogram of nanosecond latencies. Values below 64 ns are counted exactly;
+ * above that every power of two is split into 32 buckets, so reported percentiles are within about
+ * 3% of the true value. Recording is a couple of bit operations and an array increment.
+ */
+final class LatencyHistogram {
+    private static final int LINEAR = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = LINEAR + (63 - 6 + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucket(nanos)]++;
+        total++;
+        if (nanos > max) max = nanos;
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * Lower bound of the bucket holding the given percentile (0..100).
+     */
+    long percentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(lowerBound(i), max);
+        }
+        return max;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < LINEAR) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 6) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 6;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        return (1L << exponent) + ((long) sub << (exponent - SUB_BUCKET_BITS));
+    }
+}
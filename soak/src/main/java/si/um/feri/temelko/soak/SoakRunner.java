@@ -0,0 +1,139 @@
+package si.um.feri.temelko.soak;
+
+import si.um.feri.temelko.GameSettings;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless soak test: plays many independent bot-driven sessions in parallel on a work-stealing pool,
+ * spread evenly across the difficulties, and reports throughput, tick latency, heap growth and GC
+ * activity. Heap is measured after a full GC before and after the run, so steady growth between the
+ * progress lines or a large final delta points at a leak in the gameplay code.
+ * <p>
+ * Options: {@code --sessions N}, {@code --ticks N} (per session), {@code --threads N},
+ * {@code --seed N} and {@code --progress SECONDS}.
+ */
+public class SoakRunner {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessionCount = 3000;
+        int ticks = 36_000; // five minutes of play each at the game's fixed tick
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1L;
+        int progressSeconds = 5;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--sessions": sessionCount = Integer.parseInt(value); break;
+                case "--ticks": ticks = Integer.parseInt(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--progress": progressSeconds = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "Soak: %d sessions x %d ticks on %d threads%n", sessionCount, ticks, threads);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapBefore = settledHeapUsed(memory);
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+
+        GameSettings.Difficulty[] difficulties = GameSettings.Difficulty.values();
+        LongAdder progress = new LongAdder();
+        List<SoakSession> sessions = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            // Far apart seeds so restarted runs of one session never reuse another session's seeds
+            sessions.add(new SoakSession(difficulties[i % difficulties.length], seed + i * 1_000_003L, ticks, progress));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(sessionCount);
+        for (SoakSession session : sessions) tasks.add(pool.submit(session));
+
+        long lastTicks = 0;
+        long lastTime = start;
+        while (!pool.awaitQuiescence(progressSeconds, TimeUnit.SECONDS)) {
+            long now = System.nanoTime();
+            long done = progress.sum();
+            System.out.printf(Locale.ROOT, "  %6.1fs  %5.1f%%  %,.0f ticks/s  heap %,d KB%n",
+                (now - start) / 1e9, 100.0 * done / ((long) sessionCount * ticks),
+                (done - lastTicks) / ((now - lastTime) / 1e9), memory.getHeapMemoryUsage().getUsed() / 1024);
+            lastTicks = done;
+            lastTime = now;
+        }
+        long elapsed = System.nanoTime() - start;
+        for (ForkJoinTask<?> task : tasks) task.join(); // rethrows any failure from a session
+        pool.shutdown();
+
+        long heapAfter = settledHeapUsed(memory);
+        report(sessions, elapsed, threads);
+        System.out.printf(Locale.ROOT, "Heap after GC: %,d KB -> %,d KB (%+,d KB)%n",
+            heapBefore / 1024, heapAfter / 1024, (heapAfter - heapBefore) / 1024);
+        System.out.printf(Locale.ROOT, "GC: %d collections, %d ms%n", gcCount() - gcCountBefore, gcTime() - gcTimeBefore);
+    }
+
+    private static void report(List<SoakSession> sessions, long elapsedNanos, int threads) {
+        LatencyHistogram all = new LatencyHistogram();
+        long worstSessionP99 = 0;
+        for (SoakSession session : sessions) {
+            all.add(session.getLatency());
+            worstSessionP99 = Math.max(worstSessionP99, session.getLatency().percentile(99));
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "Ticks: %,d in %.1fs = %,.0f ticks/s (%,.0f per thread)%n",
+            all.getTotal(), seconds, all.getTotal() / seconds, all.getTotal() / seconds / threads);
+
+        StringBuilder line = new StringBuilder("Tick latency:");
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(Locale.ROOT, "  p%s %,d ns", formatPercentile(percentile), all.percentile(percentile)));
+        }
+        line.append(String.format(Locale.ROOT, "  max %,d ns  worst session p99 %,d ns", all.getMax(), worstSessionP99));
+        System.out.println(line);
+
+        for (GameSettings.Difficulty difficulty : GameSettings.Difficulty.values()) {
+            int runs = 0;
+            long score = 0;
+            int best = 0;
+            for (SoakSession session : sessions) {
+                if (session.getDifficulty() != difficulty) continue;
+                runs += session.getRuns();
+                score += session.getTotalScore();
+                best = Math.max(best, session.getBestScore());
+            }
+            System.out.printf(Locale.ROOT, "%-7s %,d runs, average score %.1f, best %d%n",
+                difficulty, runs, runs == 0 ? 0.0 : (double) score / runs, best);
+        }
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Integer.toString((int) percentile) : Double.toString(percentile);
+    }
+
+    private static long settledHeapUsed(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) time += Math.max(0, gc.getCollectionTime());
+        return time;
+    }
+}
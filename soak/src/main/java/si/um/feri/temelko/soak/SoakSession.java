@@ -0,0 +1,84 @@
+package si.um.feri.temelko.soak;
+
+import si.um.feri.temelko.GameSettings;
+import si.um.feri.temelko.RoadSimulation;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One long-running player: a {@link RoadSimulation} with the game's world and entity sizes, stepped at the
+ * game's fixed tick by a {@link BotPolicy} and restarted with the next seed whenever a run ends.
+ * Every tick is timed into the session's own histogram, so nothing is shared on the hot path apart from
+ * a progress counter updated in batches.
+ */
+final class SoakSession implements Runnable {
+    private static final int PROGRESS_BATCH = 4096;
+
+    private final GameSettings.Difficulty difficulty;
+    private final long seed;
+    private final int ticks;
+    private final LongAdder progress;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private int runs;
+    private long totalScore;
+    private int bestScore;
+
+    SoakSession(GameSettings.Difficulty difficulty, long seed, int ticks, LongAdder progress) {
+        this.difficulty = difficulty;
+        this.seed = seed;
+        this.ticks = ticks;
+        this.progress = progress;
+    }
+
+    @Override
+    public void run() {
+        RoadSimulation simulation = new RoadSimulation();
+        BotPolicy bot = new BotPolicy(seed);
+        RoadSimulation.InputState input = simulation.getInput();
+
+        long runSeed = seed;
+        simulation.reset(difficulty, runSeed);
+        int pending = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            if (simulation.isGameOver()) {
+                finishRun(simulation);
+                simulation.reset(difficulty, ++runSeed);
+            }
+            long start = System.nanoTime();
+            bot.decide(simulation, input);
+            simulation.step(RoadSimulation.FIXED_TICK);
+            latency.record(System.nanoTime() - start);
+            if (++pending == PROGRESS_BATCH) {
+                progress.add(pending);
+                pending = 0;
+            }
+        }
+        progress.add(pending);
+        finishRun(simulation);
+    }
+
+    private void finishRun(RoadSimulation simulation) {
+        runs++;
+        totalScore += simulation.getScore();
+        bestScore = Math.max(bestScore, simulation.getScore());
+    }
+
+    GameSettings.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    int getRuns() {
+        return runs;
+    }
+
+    long getTotalScore() {
+        return totalScore;
+    }
+
+    int getBestScore() {
+        return bestScore;
+    }
+}